@@ -0,0 +1,72 @@
+package com.dailycodework.dreamshops;
+
+import com.dailycodework.dreamshops.model.Category;
+import com.dailycodework.dreamshops.model.Image;
+import com.dailycodework.dreamshops.model.Product;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Dados e repositórios em memória compartilhados pelos benchmarks, sem Spring nem banco.
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    public static List<Product> products(int count) {
+        Category category = new Category("Electronics");
+        category.setId(1L);
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Product product = new Product("Product " + i, "Brand " + (i % 20),
+                    BigDecimal.valueOf(1000 + i, 2), i % 100, "Description of product " + i, category);
+            product.setId((long) i);
+            products.add(product);
+        }
+        return products;
+    }
+
+    public static List<Image> images(Product product, int count) {
+        List<Image> images = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Image image = new Image();
+            image.setId(product.getId() * 100 + i);
+            image.setFileName("product-" + product.getId() + "-" + i + ".jpg");
+            image.setFileType("image/jpeg");
+            image.setDownloadUrl("/api/v1/images/image/download/" + image.getId());
+            image.setProduct(product);
+            images.add(image);
+        }
+        return images;
+    }
+
+    /**
+     * Implementa um repositório Spring Data com um proxy: cada método usado pelo benchmark
+     * é resolvido pelo nome em {@code handlers}; qualquer outro lança UnsupportedOperationException.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> handlers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "toString":
+                    return type.getSimpleName() + " stub";
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    Function<Object[], Object> handler = handlers.get(method.getName());
+                    if (handler == null) {
+                        throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+                    }
+                    return handler.apply(args);
+            }
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package com.dailycodework.dreamshops.mapper;
+
+import com.dailycodework.dreamshops.BenchmarkFixtures;
+import com.dailycodework.dreamshops.dto.ImageDto;
+import com.dailycodework.dreamshops.dto.ProductDto;
+import com.dailycodework.dreamshops.model.Image;
+import com.dailycodework.dreamshops.model.Product;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por objeto dos mappers escritos à mão comparado ao ModelMapper configurado como o
+ * antigo bean de {@code ShopConfig} (imagens ignoradas no mapeamento de produto).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMapperBenchmark {
+
+    private ProductMapper productMapper;
+    private ModelMapper modelMapper;
+    private Product product;
+    private Image image;
+
+    @Setup
+    public void setUp() {
+        productMapper = new ProductMapper();
+        modelMapper = new ModelMapper();
+        modelMapper.typeMap(Product.class, ProductDto.class)
+                .addMappings(mapper -> mapper.skip(ProductDto::setImages));
+        product = BenchmarkFixtures.products(1).get(0);
+        image = BenchmarkFixtures.images(product, 1).get(0);
+    }
+
+    @Benchmark
+    public ProductDto productMapper() {
+        return productMapper.toDto(product);
+    }
+
+    @Benchmark
+    public ProductDto productModelMapper() {
+        return modelMapper.map(product, ProductDto.class);
+    }
+
+    @Benchmark
+    public ImageDto imageMapper() {
+        return productMapper.toImageDto(image);
+    }
+
+    @Benchmark
+    public ImageDto imageModelMapper() {
+        return modelMapper.map(image, ImageDto.class);
+    }
+}
@@ -0,0 +1,83 @@
+package com.dailycodework.dreamshops.model;
+
+import com.dailycodework.dreamshops.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operações de linha em carrinhos grandes (B2B com 1k linhas ou mais): adicionar/remover e alterar a
+ * quantidade ajustam o total pela diferença da linha, e a busca por produto usa o índice do carrinho.
+ * {@code recalculateTotal} mede o recálculo completo que essas operações faziam antes.
+ * Os valores são {@link Money} (centavos em {@code long}), sem alocar {@link java.math.BigDecimal} por linha.
+ * O carrinho volta ao estado original a cada invocação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int cartSize;
+
+    private Cart cart;
+    private CartItem extraItem;
+    private Long lastProductId;
+
+    @Setup
+    public void setUp() {
+        List<Product> products = BenchmarkFixtures.products(cartSize + 1);
+        cart = new Cart();
+        for (int i = 0; i < cartSize; i++) {
+            cart.addItem(item(i + 1L, products.get(i), 1 + i % 5));
+        }
+        extraItem = item(cartSize + 1L, products.get(cartSize), 2);
+        lastProductId = products.get(cartSize - 1).getId();
+    }
+
+    private static CartItem item(Long id, Product product, int quantity) {
+        CartItem item = new CartItem();
+        item.setId(id);
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        item.setUnitPrice(Money.of(product.getPrice()));
+        item.setTotalPrice();
+        return item;
+    }
+
+    @Benchmark
+    public Money addAndRemoveItem() {
+        cart.addItem(extraItem);
+        cart.removeItem(extraItem);
+        return cart.getTotalAmount();
+    }
+
+    @Benchmark
+    public Money findAndUpdateItem() {
+        CartItem item = cart.getItem(lastProductId);
+        int quantity = item.getQuantity();
+        cart.updateItem(item, quantity + 1, item.getUnitPrice());
+        cart.updateItem(item, quantity, item.getUnitPrice());
+        return cart.getTotalAmount();
+    }
+
+    @Benchmark
+    public Money recalculateTotal() {
+        cart.updateTotalAmount();
+        return cart.getTotalAmount();
+    }
+}
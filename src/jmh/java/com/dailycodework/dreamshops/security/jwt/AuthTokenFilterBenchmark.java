@@ -0,0 +1,40 @@
+package com.dailycodework.dreamshops.security.jwt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthTokenFilterBenchmark {
+
+    // Casa pelo prefixo, pela regex, e uma URL pública que percorre todas as regras
+    @Param({"/api/v1/carts/1/my-cart", "/api/v1/products/product/42/delete", "/api/v1/products/all"})
+    public String requestUri;
+
+    private AuthTokenFilter filter;
+
+    @Setup
+    public void setUp() {
+        filter = new AuthTokenFilter();
+    }
+
+    @Benchmark
+    public boolean isSecuredUrl() {
+        return filter.isSecuredUrl(requestUri);
+    }
+}
@@ -0,0 +1,54 @@
+package com.dailycodework.dreamshops.service.order;
+
+import com.dailycodework.dreamshops.BenchmarkFixtures;
+import com.dailycodework.dreamshops.mapper.OrderMapper;
+import com.dailycodework.dreamshops.model.Money;
+import com.dailycodework.dreamshops.model.Order;
+import com.dailycodework.dreamshops.model.OrderItem;
+import com.dailycodework.dreamshops.model.Product;
+import com.dailycodework.dreamshops.service.cart.CartLocks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    @Param({"10", "1000"})
+    public int itemCount;
+
+    private OrderService orderService;
+    private List<OrderItem> items;
+
+    @Setup
+    public void setUp() {
+        // calculateTotalAmount não usa repositórios nem o carrinho
+        orderService = new OrderService(null, null, null, new OrderMapper(), new CartLocks(), null, null);
+        Order order = new Order();
+        List<Product> products = BenchmarkFixtures.products(itemCount);
+        items = products.stream()
+                .map(product -> new OrderItem(order, product, 1 + product.getId().intValue() % 5, Money.of(product.getPrice())))
+                .toList();
+    }
+
+    @Benchmark
+    public Money calculateTotalAmount() {
+        return orderService.calculateTotalAmount(items);
+    }
+}
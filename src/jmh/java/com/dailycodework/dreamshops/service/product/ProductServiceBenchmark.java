@@ -0,0 +1,78 @@
+package com.dailycodework.dreamshops.service.product;
+
+import com.dailycodework.dreamshops.BenchmarkFixtures;
+import com.dailycodework.dreamshops.dto.ProductDto;
+import com.dailycodework.dreamshops.mapper.ProductMapper;
+import com.dailycodework.dreamshops.model.Image;
+import com.dailycodework.dreamshops.model.Product;
+import com.dailycodework.dreamshops.repository.ImageRepository;
+import com.dailycodework.dreamshops.repository.ImageRepository.ImageSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    private static final int IMAGES_PER_PRODUCT = 3;
+
+    @Param({"50", "1000"})
+    public int productCount;
+
+    private ProductService productService;
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        products = BenchmarkFixtures.products(productCount);
+        Map<Long, List<ImageSummary>> imagesByProductId = new HashMap<>();
+        products.forEach(product -> imagesByProductId.put(product.getId(),
+                BenchmarkFixtures.images(product, IMAGES_PER_PRODUCT).stream()
+                        .map(ProductServiceBenchmark::summary)
+                        .toList()));
+
+        ImageRepository imageRepository = BenchmarkFixtures.repository(ImageRepository.class, Map.of(
+                "findSummariesByProductId", args -> imagesByProductId.getOrDefault((Long) args[0], List.of()),
+                "findSummariesByProductIdIn", args -> ((Collection<?>) args[0]).stream()
+                        .flatMap(id -> imagesByProductId.getOrDefault((Long) id, List.of()).stream())
+                        .toList()));
+
+        // Apenas o repositório de imagens e o mapper participam da conversão para DTO
+        productService = new ProductService(null, null, imageRepository, new ProductMapper(),
+                null, null, null, null, null, null);
+    }
+
+    private static ImageSummary summary(Image image) {
+        return new ImageSummary(image.getId(), image.getProduct().getId(), image.getFileName(), image.getFileType(),
+                image.getDownloadUrl(), image.getThumbnailHash(), image.getMediumHash(), image.getLargeHash());
+    }
+
+    @Benchmark
+    public ProductDto convertToDto() {
+        return productService.convertToDto(products.get(0));
+    }
+
+    @Benchmark
+    public List<ProductDto> getConvertedProducts() {
+        return productService.getConvertedProducts(products);
+    }
+}
@@ -3,6 +3,7 @@ package com.dailycodework.dreamshops.controller;
 import com.dailycodework.dreamshops.exceptions.ResourceNotFoundException;
 import com.dailycodework.dreamshops.model.Cart;
 import com.dailycodework.dreamshops.model.User;
+import com.dailycodework.dreamshops.request.CartItemOperationRequest;
 import com.dailycodework.dreamshops.response.ApiResponse;
 import com.dailycodework.dreamshops.service.cart.ICartItemService;
 import com.dailycodework.dreamshops.service.cart.ICartService;
@@ -12,6 +13,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 
@@ -40,6 +44,24 @@ public class CartItemController {
         }
     }
 
+    // Aplica várias operações (ADD, UPDATE, REMOVE) de uma vez, numa única transação
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse> applyOperations(@RequestBody List<CartItemOperationRequest> operations) {
+        try {
+            User user = userService.getAuthenticatedUser();
+            Cart cart = cartService.initializeNewCart(user);
+
+            Cart updatedCart = cartItemService.applyOperations(cart.getId(), operations);
+            return ResponseEntity.ok(new ApiResponse("Batch Update Success", updatedCart));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(NOT_FOUND).body(new ApiResponse(e.getMessage(), null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(BAD_REQUEST).body(new ApiResponse(e.getMessage(), null));
+        } catch (JwtException e){
+            return ResponseEntity.status(UNAUTHORIZED).body(new ApiResponse(e.getMessage(), null));
+        }
+    }
+
     @DeleteMapping("/{itemId}")
     public ResponseEntity<ApiResponse> removeItemFromCart(@PathVariable Long cartId, @PathVariable Long itemId) {
         try {
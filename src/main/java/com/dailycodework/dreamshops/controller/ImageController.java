@@ -1,24 +1,32 @@
 package com.dailycodework.dreamshops.controller;
 
 import com.dailycodework.dreamshops.dto.ImageDto;
+import com.dailycodework.dreamshops.exceptions.ImageTooLargeException;
 import com.dailycodework.dreamshops.exceptions.ResourceNotFoundException;
 import com.dailycodework.dreamshops.model.Image;
+import com.dailycodework.dreamshops.repository.ImageRepository.ImageFile;
 import com.dailycodework.dreamshops.response.ApiResponse;
 import com.dailycodework.dreamshops.service.image.IImageService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.sql.SQLException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.PAYLOAD_TOO_LARGE;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -36,19 +44,85 @@ public class ImageController {
         try {
             List<ImageDto> imageDtos = imageService.saveImages(files, productId);
             return ResponseEntity.ok(new ApiResponse("Upload success!", imageDtos));
+        } catch (ImageTooLargeException e) {
+            return ResponseEntity.status(PAYLOAD_TOO_LARGE).body(new ApiResponse("Upload failed!", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(INTERNAL_SERVER_ERROR).body(new ApiResponse("Upload failed!", e.getMessage()));
         }
 
     }
 
+    // Upload com o corpo bruto da requisição (sem multipart): o stream vai direto para o armazenamento
+    @PostMapping(value = "/product/{productId}/upload", consumes = "image/*")
+    public ResponseEntity<ApiResponse> uploadImage(@PathVariable Long productId,
+                                                   @RequestParam String fileName,
+                                                   @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                   InputStream body) {
+        try {
+            ImageDto imageDto = imageService.saveImage(body, fileName, contentType, productId);
+            return ResponseEntity.ok(new ApiResponse("Upload success!", imageDto));
+        } catch (ImageTooLargeException e) {
+            return ResponseEntity.status(PAYLOAD_TOO_LARGE).body(new ApiResponse("Upload failed!", e.getMessage()));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(NOT_FOUND).body(new ApiResponse("Upload failed!", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(INTERNAL_SERVER_ERROR).body(new ApiResponse("Upload failed!", e.getMessage()));
+        }
+    }
+
     @GetMapping("/image/download/{imageId}")
-    public ResponseEntity<Resource> downloadImage(@PathVariable Long imageId) throws SQLException {
+    public ResponseEntity<Resource> downloadImage(@PathVariable Long imageId) {
         Image image = imageService.getImageById(imageId);
-        ByteArrayResource resource = new ByteArrayResource(image.getImage().getBytes(1, (int) image.getImage().length()));
-        return  ResponseEntity.ok().contentType(MediaType.parseMediaType(image.getFileType()))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" +image.getFileName() + "\"")
-                .body(resource);
+        Resource resource = imageService.getImageContent(image);
+        // O id pode passar a apontar para outro conteúdo: o cliente guarda, mas revalida com If-None-Match
+        return imageResponse(image, image.getContentHash(), resource, CacheControl.noCache(), "attachment");
+    }
+
+    @GetMapping("/content/{contentHash}")
+    public ResponseEntity<Resource> getImageContent(@PathVariable String contentHash, WebRequest request) {
+        // O hash é o próprio ETag: responde 304 sem consultar o banco
+        if (request.checkNotModified(contentHash)) {
+            return null;
+        }
+        // O hash pode ser do original ou de uma variante; os metadados vêm da imagem que o referencia
+        Image image = imageService.getImageByContentHash(contentHash);
+        Resource resource = imageService.getContent(contentHash);
+        return imageResponse(image, contentHash, resource, CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable(), "inline");
+    }
+
+    // ZIP com todas as imagens de um produto ou categoria, escrito direto na resposta enquanto é gerado
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportImages(@RequestParam(required = false) Long productId,
+                                                              @RequestParam(required = false) String category) {
+        if ((productId == null) == (category == null)) {
+            throw new IllegalArgumentException("Provide either productId or category");
+        }
+        // A lista (id, nome, hash) é resolvida antes do stream começar, para responder 404 com cabeçalhos limpos
+        List<ImageFile> files = productId != null
+                ? imageService.getProductImageFiles(productId)
+                : imageService.getCategoryImageFiles(category);
+        String archiveName = (productId != null ? "product-" + productId : "category-" + category) + "-images.zip";
+        StreamingResponseBody body = out -> imageService.writeZip(files, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(archiveName, StandardCharsets.UTF_8).build().toString())
+                .body(body);
+    }
+
+    // ETag/Last-Modified permitem ao Spring responder 304 a GETs condicionais, e o corpo Resource
+    // faz o Spring atender cabeçalhos Range com 206 Partial Content
+    private ResponseEntity<Resource> imageResponse(Image image, String contentHash, Resource resource,
+                                                   CacheControl cacheControl, String disposition) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(image.getFileType()))
+                .eTag(contentHash)
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition + "; filename=\"" + image.getFileName() + "\"");
+        if (image.getUploadedAt() != null) {
+            response.lastModified(image.getUploadedAt());
+        }
+        return response.body(resource);
     }
 
     @PutMapping("/updateImage/{imageId}")
@@ -58,6 +132,8 @@ public class ImageController {
             return ResponseEntity.ok(new ApiResponse("Update success!", image));
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.status(NOT_FOUND).body(new ApiResponse("Image not found!", e.getMessage()));
+        } catch (ImageTooLargeException e) {
+            return ResponseEntity.status(PAYLOAD_TOO_LARGE).body(new ApiResponse("Update failed!", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(INTERNAL_SERVER_ERROR).body(new ApiResponse("Update failed!", e.getMessage()));
         }
@@ -1,19 +1,28 @@
 package com.dailycodework.dreamshops.controller;
 
 
+import com.dailycodework.dreamshops.dto.ProductBulkUpdateResultDto;
 import com.dailycodework.dreamshops.dto.ProductDto;
+import com.dailycodework.dreamshops.dto.ProductFacetsDto;
+import com.dailycodework.dreamshops.dto.ProductImportResultDto;
+import com.dailycodework.dreamshops.dto.ProductPageDto;
+import com.dailycodework.dreamshops.dto.ProductSuggestionDto;
+import com.dailycodework.dreamshops.enums.ImportFormat;
 import com.dailycodework.dreamshops.exceptions.AlreadyExistsException;
 import com.dailycodework.dreamshops.exceptions.ResourceNotFoundException;
 import com.dailycodework.dreamshops.model.Product;
 import com.dailycodework.dreamshops.request.AddProductRequest;
+import com.dailycodework.dreamshops.request.ProductBulkUpdateRequest;
 import com.dailycodework.dreamshops.request.ProductUpdateRequest;
 import com.dailycodework.dreamshops.response.ApiResponse;
+import com.dailycodework.dreamshops.service.product.IProductImportService;
 import com.dailycodework.dreamshops.service.product.IProductService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 
 import static org.springframework.http.HttpStatus.*;
@@ -22,21 +31,23 @@ import static org.springframework.http.HttpStatus.*;
 @RestController
 @RequestMapping("${api.prefix}/products")
 public class ProductController {
+    private static final String DEFAULT_PAGE_SIZE = "50";
+
     private final IProductService productService;
+    private final IProductImportService productImportService;
 
     @GetMapping("/all")
-    public ResponseEntity<ApiResponse> getAllProducts() {
-        List<Product> products = productService.getAllProducts();
-        List<ProductDto> convertedProducts = productService.getConvertedProducts(products);
-        return  ResponseEntity.ok(new ApiResponse("success", convertedProducts));
+    public ResponseEntity<ApiResponse> getAllProducts(@RequestParam(required = false) Long after,
+                                                      @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        ProductPageDto page = productService.getAllProducts(after, limit);
+        return  ResponseEntity.ok(new ApiResponse("success", page));
     }
 
 
     @GetMapping("product/{productId}/product")
     public ResponseEntity<ApiResponse> getProductById(@PathVariable Long productId) {
         try {
-            Product product = productService.getProductById(productId);
-            ProductDto productDto = productService.convertToDto(product);
+            ProductDto productDto = productService.getProductDtoById(productId);
             return  ResponseEntity.ok(new ApiResponse("success", productDto));
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.status(NOT_FOUND).body(new ApiResponse(e.getMessage(), null));
@@ -54,6 +65,18 @@ public class ProductController {
         }
     }
     @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ApiResponse> importProducts(@RequestHeader("Content-Type") String contentType,
+                                                      InputStream body) {
+        try {
+            ImportFormat format = contentType.startsWith("text/csv") ? ImportFormat.CSV : ImportFormat.NDJSON;
+            ProductImportResultDto result = productImportService.importProducts(body, format);
+            return ResponseEntity.ok(new ApiResponse("Import finished!", result));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(BAD_REQUEST).body(new ApiResponse(e.getMessage(), null));
+        }
+    }
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
     @PutMapping("/product/{productId}/update")
     public  ResponseEntity<ApiResponse> updateProduct(@RequestBody ProductUpdateRequest request, @PathVariable Long productId) {
         try {
@@ -65,6 +88,16 @@ public class ProductController {
         }
     }
     @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PutMapping("/bulk-update")
+    public ResponseEntity<ApiResponse> bulkUpdateProducts(@RequestBody List<ProductBulkUpdateRequest> updates) {
+        try {
+            ProductBulkUpdateResultDto result = productService.bulkUpdateProducts(updates);
+            return ResponseEntity.ok(new ApiResponse("Bulk update success!", result));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(BAD_REQUEST).body(new ApiResponse(e.getMessage(), null));
+        }
+    }
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
     @DeleteMapping("/product/{productId}/delete")
     public ResponseEntity<ApiResponse> deleteProduct(@PathVariable Long productId) {
         try {
@@ -76,75 +109,105 @@ public class ProductController {
     }
 
     @GetMapping("/products/by/brand-and-name")
-    public ResponseEntity<ApiResponse> getProductByBrandAndName(@RequestParam String brandName, @RequestParam String productName) {
+    public ResponseEntity<ApiResponse> getProductByBrandAndName(@RequestParam String brandName, @RequestParam String productName,
+                                                                @RequestParam(required = false) Long after,
+                                                                @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
         try {
-            List<Product> products = productService.getProductsByBrandAndName(brandName, productName);
-            if (products.isEmpty()) {
+            ProductPageDto page = productService.getProductsByBrandAndName(brandName, productName, after, limit);
+            if (page.getProducts().isEmpty()) {
                 return ResponseEntity.status(NOT_FOUND).body(new ApiResponse("No products found ", null));
             }
-            List<ProductDto> convertedProducts = productService.getConvertedProducts(products);
-            return  ResponseEntity.ok(new ApiResponse("success", convertedProducts));
+            return  ResponseEntity.ok(new ApiResponse("success", page));
         } catch (Exception e) {
             return ResponseEntity.status(INTERNAL_SERVER_ERROR).body(new ApiResponse(e.getMessage(), null));
         }
     }
 
     @GetMapping("/products/by/category-and-brand")
-    public ResponseEntity<ApiResponse> getProductByCategoryAndBrand(@RequestParam String category, @RequestParam String brand){
+    public ResponseEntity<ApiResponse> getProductByCategoryAndBrand(@RequestParam String category, @RequestParam String brand,
+                                                                    @RequestParam(required = false) Long after,
+                                                                    @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit){
         try {
-            List<Product> products = productService.getProductsByCategoryAndBrand(category, brand);
-            if (products.isEmpty()) {
+            ProductPageDto page = productService.getProductsByCategoryAndBrand(category, brand, after, limit);
+            if (page.getProducts().isEmpty()) {
                 return ResponseEntity.status(NOT_FOUND).body(new ApiResponse("No products found ", null));
             }
-            List<ProductDto> convertedProducts = productService.getConvertedProducts(products);
-            return  ResponseEntity.ok(new ApiResponse("success", convertedProducts));
+            return  ResponseEntity.ok(new ApiResponse("success", page));
         } catch (Exception e) {
             return ResponseEntity.status(INTERNAL_SERVER_ERROR).body(new ApiResponse("error", e.getMessage()));
         }
     }
 
     @GetMapping("/products/{name}/products")
-    public ResponseEntity<ApiResponse> getProductByName(@PathVariable String name){
+    public ResponseEntity<ApiResponse> getProductByName(@PathVariable String name,
+                                                        @RequestParam(required = false) Long after,
+                                                        @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit){
         try {
-            List<Product> products = productService.getProductsByName(name);
-            if (products.isEmpty()) {
+            ProductPageDto page = productService.getProductsByName(name, after, limit);
+            if (page.getProducts().isEmpty()) {
                 return ResponseEntity.status(NOT_FOUND).body(new ApiResponse("No products found ", null));
             }
-            List<ProductDto> convertedProducts = productService.getConvertedProducts(products);
-            return  ResponseEntity.ok(new ApiResponse("success", convertedProducts));
+            return  ResponseEntity.ok(new ApiResponse("success", page));
         } catch (Exception e) {
             return ResponseEntity.status(INTERNAL_SERVER_ERROR).body(new ApiResponse("error", e.getMessage()));
         }
     }
 
     @GetMapping("/product/by-brand")
-    public ResponseEntity<ApiResponse> findProductByBrand(@RequestParam String brand) {
+    public ResponseEntity<ApiResponse> findProductByBrand(@RequestParam String brand,
+                                                          @RequestParam(required = false) Long after,
+                                                          @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
         try {
-            List<Product> products = productService.getProductsByBrand(brand);
-            if (products.isEmpty()) {
+            ProductPageDto page = productService.getProductsByBrand(brand, after, limit);
+            if (page.getProducts().isEmpty()) {
                 return ResponseEntity.status(NOT_FOUND).body(new ApiResponse("No products found ", null));
             }
-            List<ProductDto> convertedProducts = productService.getConvertedProducts(products);
-            return  ResponseEntity.ok(new ApiResponse("success", convertedProducts));
+            return  ResponseEntity.ok(new ApiResponse("success", page));
         } catch (Exception e) {
             return ResponseEntity.ok(new ApiResponse(e.getMessage(), null));
         }
     }
 
     @GetMapping("/product/{category}/all/products")
-    public ResponseEntity<ApiResponse> findProductByCategory(@PathVariable String category) {
+    public ResponseEntity<ApiResponse> findProductByCategory(@PathVariable String category,
+                                                             @RequestParam(required = false) Long after,
+                                                             @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
         try {
-            List<Product> products = productService.getProductsByCategory(category);
-            if (products.isEmpty()) {
+            ProductPageDto page = productService.getProductsByCategory(category, after, limit);
+            if (page.getProducts().isEmpty()) {
                 return ResponseEntity.status(NOT_FOUND).body(new ApiResponse("No products found ", null));
             }
-            List<ProductDto> convertedProducts = productService.getConvertedProducts(products);
-            return  ResponseEntity.ok(new ApiResponse("success", convertedProducts));
+            return  ResponseEntity.ok(new ApiResponse("success", page));
         } catch (Exception e) {
             return ResponseEntity.ok(new ApiResponse(e.getMessage(), null));
         }
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse> searchProducts(@RequestParam("q") String query,
+                                                      @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        List<ProductDto> products = productService.searchProducts(query, limit);
+        if (products.isEmpty()) {
+            return ResponseEntity.status(NOT_FOUND).body(new ApiResponse("No products found ", null));
+        }
+        return ResponseEntity.ok(new ApiResponse("success", products));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse> suggestProducts(@RequestParam String prefix,
+                                                       @RequestParam(defaultValue = "10") int limit) {
+        List<ProductSuggestionDto> suggestions = productService.suggestProducts(prefix, limit);
+        return ResponseEntity.ok(new ApiResponse("success", suggestions));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<ApiResponse> getProductFacets(@RequestParam(required = false) String category,
+                                                        @RequestParam(required = false) String brand,
+                                                        @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        ProductFacetsDto facets = productService.getProductFacets(category, brand, limit);
+        return ResponseEntity.ok(new ApiResponse("success", facets));
+    }
+
     @GetMapping("/product/count/by-brand/and-name")
     public ResponseEntity<ApiResponse> countProductsByBrandAndName(@RequestParam String brand, @RequestParam String name) {
         try {
@@ -0,0 +1,100 @@
+package com.dailycodework.dreamshops.data;
+
+import com.dailycodework.dreamshops.service.image.ImageContentRegistry;
+import com.dailycodework.dreamshops.service.image.ImageStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Blob;
+import java.util.List;
+
+/**
+ * Move os bytes das imagens antigas (coluna {@code image}, large object do Postgres) para o
+ * {@link ImageStorage}. Cada lote roda na sua própria transação: o blob é copiado em stream para o
+ * armazenamento, a linha recebe {@code content_hash}/{@code content_length} e a URL imutável do conteúdo,
+ * e o large object é liberado.
+ * Pode ser interrompida e executada de novo; só processa as linhas ainda sem hash.
+ * Ativada com {@code app.images.migrate-blobs=true}.
+ */
+@Slf4j
+@Component
+public class ImageBlobMigration implements ApplicationListener<ApplicationReadyEvent> {
+    private static final int BATCH_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ImageStorage imageStorage;
+    private final ImageContentRegistry imageContentRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.images.migrate-blobs:false}")
+    private boolean enabled;
+
+    @Value("${api.prefix}")
+    private String apiPrefix;
+
+    public ImageBlobMigration(JdbcTemplate jdbcTemplate,
+                              ImageStorage imageStorage,
+                              ImageContentRegistry imageContentRegistry,
+                              PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.imageStorage = imageStorage;
+        this.imageContentRegistry = imageContentRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!enabled || !hasLegacyColumn()) {
+            return;
+        }
+        int migrated = 0;
+        int batch;
+        do {
+            Integer count = transactionTemplate.execute(status -> migrateBatch());
+            batch = count == null ? 0 : count;
+            migrated += batch;
+        } while (batch == BATCH_SIZE);
+        log.info("Image blob migration finished: {} images moved to the image storage", migrated);
+    }
+
+    private boolean hasLegacyColumn() {
+        Integer columns = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM information_schema.columns WHERE table_name = 'image' AND column_name = 'image'",
+                Integer.class);
+        return columns != null && columns > 0;
+    }
+
+    private int migrateBatch() {
+        // Large objects só podem ser lidos dentro de uma transação
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM image WHERE content_hash IS NULL AND image IS NOT NULL ORDER BY id LIMIT ?",
+                Long.class, BATCH_SIZE);
+        for (Long id : ids) {
+            jdbcTemplate.query("SELECT image FROM image WHERE id = ?", rs -> {
+                long oid = rs.getLong("image");
+                Blob blob = rs.getBlob("image");
+                ImageStorage.StoredContent stored;
+                try (InputStream content = blob.getBinaryStream()) {
+                    stored = imageStorage.store(content);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to migrate image " + id, e);
+                }
+                imageContentRegistry.acquire(stored.hash(), stored.length());
+                jdbcTemplate.update("UPDATE image SET content_hash = ?, content_length = ?, uploaded_at = now(), "
+                                + "download_url = ?, image = NULL WHERE id = ?",
+                        stored.hash(), stored.length(), apiPrefix + "/images/content/" + stored.hash(), id);
+                jdbcTemplate.queryForObject("SELECT lo_unlink(?)", Integer.class, oid);
+            }, id);
+        }
+        return ids.size();
+    }
+}
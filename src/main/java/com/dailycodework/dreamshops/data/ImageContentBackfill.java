@@ -0,0 +1,41 @@
+package com.dailycodework.dreamshops.data;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Preenche {@code image_content} a partir das imagens existentes quando a tabela ainda está vazia
+ * (primeira subida com contagem de referências). Cada imagem conta uma vez por hash distinto,
+ * seja o original ou uma variante. Depende do EntityManagerFactory para rodar depois da atualização do schema.
+ */
+@Slf4j
+@Component
+public class ImageContentBackfill {
+    private final JdbcTemplate jdbcTemplate;
+
+    public ImageContentBackfill(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void backfill() {
+        Boolean empty = jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM image_content)", Boolean.class);
+        if (!Boolean.TRUE.equals(empty)) {
+            return;
+        }
+        int rows = jdbcTemplate.update("INSERT INTO image_content (hash, content_length, ref_count) "
+                + "SELECT refs.hash, (SELECT MAX(i.content_length) FROM image i WHERE i.content_hash = refs.hash), COUNT(*) "
+                + "FROM (SELECT id, content_hash AS hash FROM image "
+                + "UNION SELECT id, thumbnail_hash FROM image "
+                + "UNION SELECT id, medium_hash FROM image "
+                + "UNION SELECT id, large_hash FROM image) refs "
+                + "WHERE refs.hash IS NOT NULL GROUP BY refs.hash "
+                + "ON CONFLICT (hash) DO NOTHING");
+        if (rows > 0) {
+            log.info("Image content reference counts initialized for {} files", rows);
+        }
+    }
+}
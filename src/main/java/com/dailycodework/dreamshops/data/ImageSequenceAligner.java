@@ -0,0 +1,33 @@
+package com.dailycodework.dreamshops.data;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * A tabela image usava IDENTITY; a sequence {@code image_seq} criada pelo Hibernate começa em 1 e
+ * colidiria com os ids existentes. Antes de a aplicação atender requisições, avança a sequence para
+ * além do maior id, considerando o bloco de 50 ids reservado a cada nextval (otimizador pooled).
+ * Depende do EntityManagerFactory para rodar depois da atualização do schema.
+ */
+@Component
+public class ImageSequenceAligner {
+    private static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ImageSequenceAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void align() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM image", Long.class);
+        Long lastValue = jdbcTemplate.queryForObject("SELECT last_value FROM image_seq", Long.class);
+        long minimum = (maxId == null ? 0 : maxId) + ALLOCATION_SIZE;
+        if (lastValue == null || lastValue < minimum) {
+            jdbcTemplate.queryForObject("SELECT setval('image_seq', ?)", Long.class, minimum);
+        }
+    }
+}
@@ -7,5 +7,9 @@ public class ImageDto {
     private Long id;
     private String fileName;
     private String downloadUrl;
+    // Variantes redimensionadas; nulas enquanto ainda não foram geradas
+    private String thumbnailUrl;
+    private String mediumUrl;
+    private String largeUrl;
 
 }
@@ -0,0 +1,18 @@
+package com.dailycodework.dreamshops.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductBulkUpdateResultDto {
+    private int requested;
+    private int updated;
+    // ids sem alteração a aplicar (price e inventory nulos)
+    private int skipped;
+    private List<Long> notFound;
+}
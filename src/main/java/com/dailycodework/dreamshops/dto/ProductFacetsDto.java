@@ -0,0 +1,18 @@
+package com.dailycodework.dreamshops.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductFacetsDto {
+    private int total;
+    private List<ProductDto> products;
+    private Map<String, Integer> brandCounts;
+    private Map<String, Integer> categoryCounts;
+}
@@ -0,0 +1,15 @@
+package com.dailycodework.dreamshops.dto;
+
+import com.dailycodework.dreamshops.enums.SuggestionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSuggestionDto {
+    private String text;
+    private SuggestionType type;
+    private int popularity;
+}
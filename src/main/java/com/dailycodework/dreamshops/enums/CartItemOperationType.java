@@ -0,0 +1,9 @@
+package com.dailycodework.dreamshops.enums;
+
+public enum CartItemOperationType {
+    // soma a quantidade à linha existente (ou cria a linha)
+    ADD,
+    // define a quantidade da linha (cria se não existir; 0 remove)
+    UPDATE,
+    REMOVE
+}
@@ -0,0 +1,15 @@
+package com.dailycodework.dreamshops.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ImageVariant {
+    THUMBNAIL(200),
+    MEDIUM(600),
+    LARGE(1200);
+
+    // maior lado da imagem, em pixels
+    private final int maxSize;
+}
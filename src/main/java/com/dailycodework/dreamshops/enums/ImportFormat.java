@@ -0,0 +1,6 @@
+package com.dailycodework.dreamshops.enums;
+
+public enum ImportFormat {
+    CSV,
+    NDJSON
+}
@@ -0,0 +1,6 @@
+package com.dailycodework.dreamshops.enums;
+
+public enum SuggestionType {
+    NAME,
+    BRAND
+}
@@ -0,0 +1,7 @@
+package com.dailycodework.dreamshops.exceptions;
+
+public class ImageTooLargeException extends RuntimeException {
+    public ImageTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,39 @@
+package com.dailycodework.dreamshops.mapper;
+
+import com.dailycodework.dreamshops.dto.CartDto;
+import com.dailycodework.dreamshops.dto.CartItemDto;
+import com.dailycodework.dreamshops.model.Cart;
+import com.dailycodework.dreamshops.model.CartItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+public class CartMapper {
+
+    private final ProductMapper productMapper;
+
+    public CartDto toDto(Cart cart) {
+        CartDto cartDto = new CartDto();
+        cartDto.setCartId(cart.getId());
+        cartDto.setTotalAmount(cart.getTotalAmount() != null ? cart.getTotalAmount().toBigDecimal() : null);
+        Set<CartItemDto> items = new HashSet<>();
+        if (cart.getItems() != null) {
+            cart.getItems().forEach(item -> items.add(toItemDto(item)));
+        }
+        cartDto.setItems(items);
+        return cartDto;
+    }
+
+    public CartItemDto toItemDto(CartItem item) {
+        CartItemDto itemDto = new CartItemDto();
+        itemDto.setItemId(item.getId());
+        itemDto.setQuantity(item.getQuantity());
+        itemDto.setUnitPrice(item.getUnitPrice() != null ? item.getUnitPrice().toBigDecimal() : null);
+        itemDto.setProduct(item.getProduct() != null ? productMapper.toDto(item.getProduct()) : null);
+        return itemDto;
+    }
+}
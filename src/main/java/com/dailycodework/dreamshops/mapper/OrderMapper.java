@@ -0,0 +1,37 @@
+package com.dailycodework.dreamshops.mapper;
+
+import com.dailycodework.dreamshops.dto.OrderDto;
+import com.dailycodework.dreamshops.dto.OrderItemDto;
+import com.dailycodework.dreamshops.model.Order;
+import com.dailycodework.dreamshops.model.OrderItem;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class OrderMapper {
+
+    public OrderDto toDto(Order order) {
+        OrderDto orderDto = new OrderDto();
+        orderDto.setId(order.getOrderId());
+        orderDto.setUserId(order.getUser() != null ? order.getUser().getId() : null);
+        orderDto.setOrderDate(order.getOrderDate() != null ? order.getOrderDate().atStartOfDay() : null);
+        orderDto.setTotalAmount(order.getTotalAmount() != null ? order.getTotalAmount().toBigDecimal() : null);
+        orderDto.setStatus(order.getOrderStatus() != null ? order.getOrderStatus().name() : null);
+        orderDto.setItems(order.getOrderItems() != null
+                ? order.getOrderItems().stream().map(this::toItemDto).toList()
+                : List.of());
+        return orderDto;
+    }
+
+    public OrderItemDto toItemDto(OrderItem item) {
+        OrderItemDto itemDto = new OrderItemDto();
+        if (item.getProduct() != null) {
+            itemDto.setProductId(item.getProduct().getId());
+            itemDto.setProductName(item.getProduct().getName());
+        }
+        itemDto.setQuantity(item.getQuantity());
+        itemDto.setPrice(item.getPrice() != null ? item.getPrice().toBigDecimal() : null);
+        return itemDto;
+    }
+}
@@ -0,0 +1,63 @@
+package com.dailycodework.dreamshops.mapper;
+
+import com.dailycodework.dreamshops.dto.ImageDto;
+import com.dailycodework.dreamshops.dto.ProductDto;
+import com.dailycodework.dreamshops.model.Image;
+import com.dailycodework.dreamshops.model.Product;
+import com.dailycodework.dreamshops.repository.ImageRepository.ImageSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class ProductMapper {
+
+    @Value("${api.prefix}")
+    private String apiPrefix = "/api/v1";
+
+    // As imagens são carregadas em lote pelo chamador; não inicializa a coleção lazy do produto
+    public ProductDto toDto(Product product) {
+        ProductDto productDto = new ProductDto();
+        productDto.setId(product.getId());
+        productDto.setName(product.getName());
+        productDto.setBrand(product.getBrand());
+        productDto.setPrice(product.getPrice());
+        productDto.setInventory(product.getInventory());
+        productDto.setDescription(product.getDescription());
+        productDto.setCategory(product.getCategory());
+        return productDto;
+    }
+
+    public ProductDto toDto(Product product, List<ImageDto> images) {
+        ProductDto productDto = toDto(product);
+        productDto.setImages(images);
+        return productDto;
+    }
+
+    public ImageDto toImageDto(Image image) {
+        ImageDto imageDto = new ImageDto();
+        imageDto.setId(image.getId());
+        imageDto.setFileName(image.getFileName());
+        imageDto.setDownloadUrl(image.getDownloadUrl());
+        imageDto.setThumbnailUrl(contentUrl(image.getThumbnailHash()));
+        imageDto.setMediumUrl(contentUrl(image.getMediumHash()));
+        imageDto.setLargeUrl(contentUrl(image.getLargeHash()));
+        return imageDto;
+    }
+
+    public ImageDto toImageDto(ImageSummary image) {
+        ImageDto imageDto = new ImageDto();
+        imageDto.setId(image.id());
+        imageDto.setFileName(image.fileName());
+        imageDto.setDownloadUrl(image.downloadUrl());
+        imageDto.setThumbnailUrl(contentUrl(image.thumbnailHash()));
+        imageDto.setMediumUrl(contentUrl(image.mediumHash()));
+        imageDto.setLargeUrl(contentUrl(image.largeHash()));
+        return imageDto;
+    }
+
+    private String contentUrl(String contentHash) {
+        return contentHash != null ? apiPrefix + "/images/content/" + contentHash : null;
+    }
+}
@@ -1,13 +1,15 @@
 package com.dailycodework.dreamshops.model;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 @Getter
@@ -19,7 +21,7 @@ public class Cart {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
-    private BigDecimal totalAmount = BigDecimal.ZERO;
+    private Money totalAmount = Money.ZERO;
 
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<CartItem> items = new HashSet<>();
@@ -28,26 +30,86 @@ public class Cart {
     @JoinColumn(name = "user_id")
     private User user;
 
+    // Índice productId -> item, montado na primeira consulta a partir da coleção carregada
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Map<Long, CartItem> itemsByProductId;
+
+    public void setItems(Set<CartItem> items) {
+        this.items = items;
+        this.itemsByProductId = null;
+    }
+
+    public CartItem getItem(Long productId) {
+        return itemsByProductId().get(productId);
+    }
+
+    // O total é ajustado pela diferença de cada linha, sem percorrer o carrinho inteiro
     public void addItem(CartItem item) {
-        this.items.add(item);
+        if (!this.items.add(item)) {
+            return;
+        }
         item.setCart(this);
-        updateTotalAmount();
+        if (item.getProduct() != null) {
+            itemsByProductId().put(item.getProduct().getId(), item);
+        }
+        adjustTotalAmount(lineTotalCents(item));
     }
 
     public void removeItem(CartItem item) {
-        this.items.remove(item);
+        if (!this.items.remove(item)) {
+            return;
+        }
         item.setCart(null);
-        updateTotalAmount();
+        if (item.getProduct() != null) {
+            itemsByProductId().remove(item.getProduct().getId(), item);
+        }
+        adjustTotalAmount(Math.negateExact(lineTotalCents(item)));
+    }
+
+    public void updateItem(CartItem item, int quantity, Money unitPrice) {
+        long previous = lineTotalCents(item);
+        item.setQuantity(quantity);
+        item.setUnitPrice(unitPrice);
+        item.setTotalPrice();
+        adjustTotalAmount(Math.subtractExact(lineTotalCents(item), previous));
+    }
+
+    // Recalcula do zero; usado quando o total gravado não é confiável. A soma é feita em centavos (long),
+    // sem um objeto intermediário por linha
+    public void updateTotalAmount() {
+        long cents = 0;
+        for (CartItem item : items) {
+            cents = Math.addExact(cents, lineTotalCents(item));
+        }
+        this.totalAmount = Money.ofCents(cents);
+    }
+
+    private void adjustTotalAmount(long deltaCents) {
+        if (this.totalAmount == null) {
+            updateTotalAmount();
+            return;
+        }
+        this.totalAmount = Money.ofCents(Math.addExact(this.totalAmount.cents(), deltaCents));
+    }
+
+    private Map<Long, CartItem> itemsByProductId() {
+        if (itemsByProductId == null) {
+            itemsByProductId = new HashMap<>();
+            items.stream()
+                    .filter(item -> item.getProduct() != null)
+                    .forEach(item -> itemsByProductId.put(item.getProduct().getId(), item));
+        }
+        return itemsByProductId;
     }
 
-    private void updateTotalAmount() {
-        this.totalAmount = items.stream().map(item -> {
-            BigDecimal unitPrice = item.getUnitPrice();
-            if (unitPrice == null) {
-                return  BigDecimal.ZERO;
-            }
-            return unitPrice.multiply(BigDecimal.valueOf(item.getQuantity()));
-        }).reduce(BigDecimal.ZERO, BigDecimal::add);
+    private static long lineTotalCents(CartItem item) {
+        Money unitPrice = item.getUnitPrice();
+        if (unitPrice == null) {
+            return 0;
+        }
+        return Math.multiplyExact(unitPrice.cents(), item.getQuantity());
     }
 
 }
\ No newline at end of file
@@ -1,14 +1,17 @@
 package com.dailycodework.dreamshops.model;
 
-import java.sql.Blob;
+import java.time.Instant;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -19,17 +22,36 @@ import lombok.Setter;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_image_content_hash", columnList = "content_hash"),
+        @Index(name = "idx_image_thumbnail_hash", columnList = "thumbnail_hash"),
+        @Index(name = "idx_image_medium_hash", columnList = "medium_hash"),
+        @Index(name = "idx_image_large_hash", columnList = "large_hash")
+})
 public class Image {
+    // Sequence com allocationSize 50: os ids vêm da memória e os INSERTs podem ser agrupados em lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "image_seq")
+    @SequenceGenerator(name = "image_seq", sequenceName = "image_seq", allocationSize = 50)
     private Long id;
     private String fileName;
     private String fileType;
 
-    @Lob
-    private Blob image;
+    // Os bytes ficam no ImageStorage, endereçados pelo SHA-256 do conteúdo
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+    private Long contentLength;
+    private Instant uploadedAt;
     private String downloadUrl;
 
+    // Variantes redimensionadas, geradas em segundo plano; nulas até ficarem prontas
+    @Column(name = "thumbnail_hash", length = 64)
+    private String thumbnailHash;
+    @Column(name = "medium_hash", length = 64)
+    private String mediumHash;
+    @Column(name = "large_hash", length = 64)
+    private String largeHash;
+
     @ManyToOne
     @JoinColumn(name = "product_id")
     private Product product;
@@ -0,0 +1,26 @@
+package com.dailycodework.dreamshops.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Um arquivo do ImageStorage e quantas linhas de image o referenciam (original ou variante)
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "image_content")
+public class ImageContent {
+    @Id
+    @Column(length = 64)
+    private String hash;
+    private Long contentLength;
+    @Column(nullable = false)
+    private int refCount;
+}
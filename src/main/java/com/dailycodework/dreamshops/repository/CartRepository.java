@@ -1,9 +1,21 @@
 package com.dailycodework.dreamshops.repository;
 
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.dailycodework.dreamshops.model.Cart;
+import com.dailycodework.dreamshops.model.Money;
 
 public interface CartRepository extends JpaRepository<Cart, Long> {
     Cart findByUserId(Long userId);
+
+    // Carrinho, itens e produtos num único SELECT, sem N+1 ao percorrer os itens
+    @Query("select distinct c from Cart c left join fetch c.items i left join fetch i.product where c.id = :id")
+    Optional<Cart> findWithItemsById(@Param("id") Long id);
+
+    @Query("select c.totalAmount from Cart c where c.id = :id")
+    Optional<Money> findTotalAmountById(@Param("id") Long id);
 }
@@ -0,0 +1,26 @@
+package com.dailycodework.dreamshops.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.dailycodework.dreamshops.model.ImageContent;
+
+public interface ImageContentRepository extends JpaRepository<ImageContent, String> {
+
+    // Upsert atômico: cria o contador em 1 ou incrementa, travando a linha até o fim da transação
+    @Modifying
+    @Query(value = "INSERT INTO image_content (hash, content_length, ref_count) VALUES (:hash, :length, 1) "
+            + "ON CONFLICT (hash) DO UPDATE SET ref_count = image_content.ref_count + 1", nativeQuery = true)
+    int acquire(@Param("hash") String hash, @Param("length") Long length);
+
+    @Modifying
+    @Query(value = "UPDATE image_content SET ref_count = ref_count - 1 WHERE hash = :hash AND ref_count > 0",
+            nativeQuery = true)
+    int release(@Param("hash") String hash);
+
+    @Modifying
+    @Query(value = "DELETE FROM image_content WHERE hash = :hash AND ref_count = 0", nativeQuery = true)
+    int deleteUnreferenced(@Param("hash") String hash);
+}
@@ -1,12 +1,59 @@
 package com.dailycodework.dreamshops.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.dailycodework.dreamshops.model.Image;
 
 public interface ImageRepository extends JpaRepository<Image, Long> {
     List<Image> findByProductId(Long id);
+
+    // Listagem de catálogo: só as colunas do DTO, sem carregar a entidade nem o produto (ManyToOne EAGER)
+    String SUMMARY_SELECT = "select new com.dailycodework.dreamshops.repository.ImageRepository$ImageSummary("
+            + "i.id, i.product.id, i.fileName, i.fileType, i.downloadUrl, i.thumbnailHash, i.mediumHash, i.largeHash) "
+            + "from Image i ";
+
+    @Query(SUMMARY_SELECT + "where i.product.id = :productId order by i.id")
+    List<ImageSummary> findSummariesByProductId(@Param("productId") Long productId);
+
+    @Query(SUMMARY_SELECT + "where i.product.id in :productIds order by i.id")
+    List<ImageSummary> findSummariesByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    // Exportação em ZIP: só o necessário para localizar o arquivo no ImageStorage
+    String FILE_SELECT = "select new com.dailycodework.dreamshops.repository.ImageRepository$ImageFile("
+            + "i.id, i.fileName, i.contentHash) from Image i ";
+
+    @Query(FILE_SELECT + "where i.product.id = :productId and i.contentHash is not null order by i.id")
+    List<ImageFile> findFilesByProductId(@Param("productId") Long productId);
+
+    @Query(FILE_SELECT + "where i.product.category.name = :category and i.contentHash is not null order by i.id")
+    List<ImageFile> findFilesByCategoryName(@Param("category") String category);
+
+    record ImageSummary(Long id, Long productId, String fileName, String fileType, String downloadUrl,
+                        String thumbnailHash, String mediumHash, String largeHash) {
+    }
+
+    record ImageFile(Long id, String fileName, String contentHash) {
+    }
+
+    // Um mesmo arquivo pode ser o original de uma imagem e a variante de outra
+    @Query("select i from Image i where i.contentHash = :hash or i.thumbnailHash = :hash "
+            + "or i.mediumHash = :hash or i.largeHash = :hash")
+    List<Image> findByAnyHash(@Param("hash") String hash);
+
+    // Só grava se a imagem ainda tiver o mesmo conteúdo original usado para gerar as variantes
+    @Modifying
+    @Transactional
+    @Query("update Image i set i.thumbnailHash = :thumbnail, i.mediumHash = :medium, i.largeHash = :large "
+            + "where i.id = :id and i.contentHash = :contentHash")
+    int updateVariants(@Param("id") Long id, @Param("contentHash") String contentHash,
+                       @Param("thumbnail") String thumbnail, @Param("medium") String medium,
+                       @Param("large") String large);
     
 }
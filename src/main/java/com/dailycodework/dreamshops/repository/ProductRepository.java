@@ -1,8 +1,12 @@
 package com.dailycodework.dreamshops.repository;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.dailycodework.dreamshops.model.Product;
 
@@ -21,4 +25,33 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     Long countByBrandAndName(String brand, String name);
 
     boolean existsByNameAndBrand(String name, String brand);
+
+    // Projeção leve usada pela importação em massa para detectar duplicados por lote
+    List<NameAndBrand> findByNameIn(Collection<String> names);
+
+    interface NameAndBrand {
+        String getName();
+
+        String getBrand();
+    }
+
+    // Paginação por cursor (keyset): WHERE id > :after ORDER BY id LIMIT :pageSize
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long after, Pageable pageable);
+
+    List<Product> findByCategoryNameAndIdGreaterThanOrderByIdAsc(String category, Long after, Pageable pageable);
+
+    List<Product> findByBrandAndIdGreaterThanOrderByIdAsc(String brand, Long after, Pageable pageable);
+
+    List<Product> findByCategoryNameAndBrandAndIdGreaterThanOrderByIdAsc(String category, String brand, Long after, Pageable pageable);
+
+    List<Product> findByNameAndIdGreaterThanOrderByIdAsc(String name, Long after, Pageable pageable);
+
+    List<Product> findByBrandAndNameAndIdGreaterThanOrderByIdAsc(String brand, String name, Long after, Pageable pageable);
+
+    // Busca textual sem o índice em memória: substring em nome, marca ou descrição, sem ranking.
+    // O padrão chega com % e _ escapados com '!'
+    @Query("select p from Product p where lower(p.name) like :pattern escape '!' "
+            + "or lower(p.brand) like :pattern escape '!' "
+            + "or lower(p.description) like :pattern escape '!' order by p.id")
+    List<Product> searchByText(@Param("pattern") String pattern, Pageable pageable);
 }
@@ -0,0 +1,13 @@
+package com.dailycodework.dreamshops.request;
+
+import com.dailycodework.dreamshops.enums.CartItemOperationType;
+
+import lombok.Data;
+
+@Data
+public class CartItemOperationRequest {
+    private Long productId;
+    // ignorada em REMOVE
+    private Integer quantity;
+    private CartItemOperationType op;
+}
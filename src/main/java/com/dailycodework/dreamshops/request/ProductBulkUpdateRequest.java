@@ -0,0 +1,13 @@
+package com.dailycodework.dreamshops.request;
+
+import java.math.BigDecimal;
+
+import lombok.Data;
+
+@Data
+public class ProductBulkUpdateRequest {
+    private Long id;
+    // campos nulos mantêm o valor atual do produto
+    private BigDecimal price;
+    private Integer inventory;
+}
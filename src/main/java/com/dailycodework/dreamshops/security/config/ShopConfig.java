@@ -4,7 +4,6 @@ import com.dailycodework.dreamshops.security.jwt.AuthTokenFilter;
 import com.dailycodework.dreamshops.security.jwt.JwtAuthEntryPoint;
 import com.dailycodework.dreamshops.security.user.ShopUserDetailsService;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull;
@@ -40,6 +39,8 @@ public class ShopConfig {
             "/api/v1/cartItems/**",
             "/api/v1/users/**",
             "/api/v1/products/add",
+            "/api/v1/products/import",
+            "/api/v1/products/bulk-update",
             "/api/v1/products/product/{productId}/update",
             "/api/v1/products/product/{productId}/delete"
     );
@@ -56,20 +57,20 @@ public class ShopConfig {
             "/api/v1/auth/**",
             // Product endpoints (public)
             "/api/v1/products/all",
+            "/api/v1/products/search",
+            "/api/v1/products/facets",
+            "/api/v1/products/suggest",
             "/api/v1/products/product/**",
             "/api/v1/products/product/by-brand",
             "/api/v1/products/product/**/all/products",
+            // Image content (immutable, cacheable by CDNs)
+            "/api/v1/images/content/**",
             // Actuator endpoints (for monitoring)
             "/actuator/**",
             "/actuator/health",
             "/actuator/info"
     );
 
-    @Bean
-    public ModelMapper modelMapper() {
-        return new ModelMapper();
-    }
-
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
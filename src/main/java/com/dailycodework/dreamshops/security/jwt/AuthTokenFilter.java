@@ -56,12 +56,14 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-    private boolean isSecuredUrl(String requestURI) {
+    boolean isSecuredUrl(String requestURI) {
         // URLs que requerem autenticação
         return requestURI.startsWith("/api/v1/carts") ||
                requestURI.startsWith("/api/v1/cartItems") ||
                requestURI.startsWith("/api/v1/users") ||
                requestURI.startsWith("/api/v1/products/add") ||
+               requestURI.startsWith("/api/v1/products/import") ||
+               requestURI.startsWith("/api/v1/products/bulk-update") ||
                requestURI.matches("/api/v1/products/product/\\d+/update") ||
                requestURI.matches("/api/v1/products/product/\\d+/delete");
     }
@@ -1,90 +1,199 @@
 package com.dailycodework.dreamshops.service.cart;
 
-import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import com.dailycodework.dreamshops.enums.CartItemOperationType;
 import com.dailycodework.dreamshops.exceptions.ResourceNotFoundException;
 import com.dailycodework.dreamshops.model.Cart;
 import com.dailycodework.dreamshops.model.CartItem;
+import com.dailycodework.dreamshops.model.Money;
 import com.dailycodework.dreamshops.model.Product;
 import com.dailycodework.dreamshops.repository.CartItemRepository;
 import com.dailycodework.dreamshops.repository.CartRepository;
+import com.dailycodework.dreamshops.repository.ProductRepository;
+import com.dailycodework.dreamshops.request.CartItemOperationRequest;
 import com.dailycodework.dreamshops.service.product.IProductService;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 
 @Service
-@RequiredArgsConstructor
 public class CartItemService implements ICartItemService {
-
     private final CartItemRepository cartItemRepository;
     private final CartRepository cartRepository;
+    private final ProductRepository productRepository;
     private final IProductService productService;
     private final ICartService cartService;
+    private final CartWriteBehindStore cartWriteBehindStore;
+    private final CartLocks cartLocks;
+    private final TransactionTemplate transactionTemplate;
+
+    public CartItemService(CartItemRepository cartItemRepository,
+                           CartRepository cartRepository,
+                           ProductRepository productRepository,
+                           IProductService productService,
+                           ICartService cartService,
+                           CartWriteBehindStore cartWriteBehindStore,
+                           CartLocks cartLocks,
+                           PlatformTransactionManager transactionManager) {
+        this.cartItemRepository = cartItemRepository;
+        this.cartRepository = cartRepository;
+        this.productRepository = productRepository;
+        this.productService = productService;
+        this.cartService = cartService;
+        this.cartWriteBehindStore = cartWriteBehindStore;
+        this.cartLocks = cartLocks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     @Override
     public void addItemToCart(Long cartId, Long productId, int quantity) {
-        //1. Get the cart
-        //2. Get the product
-        //3. Check if the product already in the cart
-        //4. If Yes, then increase the quantity with the requested quantity
-        //5. If No, then initiate a new CartItem entry.
-        Cart cart = cartService.getCart(cartId);
+        if (cartWriteBehindStore.isEnabled()) {
+            // Só altera o carrinho em memória; a gravação no banco fica para o próximo flush
+            Product product = productService.getProductById(productId);
+            cartLocks.withLock(cartId, () -> cartWriteBehindStore.addItem(cartId, product, quantity));
+            return;
+        }
+        updateCart(cartId, cart -> addItem(cart, productId, quantity));
+    }
+
+    @Override
+    public void removeItemFromCart(Long cartId, Long productId) {
+        updateCart(cartId, cart -> removeItem(cart, productId));
+    }
+
+    @Override
+    public void updateItemQuantity(Long cartId, Long productId, int quantity) {
+        updateCart(cartId, cart -> updateQuantity(cart, productId, quantity));
+    }
+
+    // Sincronização do carrinho offline: todas as operações numa única transação, com uma consulta
+    // para os produtos
+    @Override
+    public Cart applyOperations(Long cartId, List<CartItemOperationRequest> operations) {
+        operations.forEach(CartItemService::validate);
+        return updateCart(cartId, cart -> applyAll(cart, operations));
+    }
+
+    @Override
+    public CartItem getCartItem(Long cartId, Long productId) {
+        return findItem(cartService.getCart(cartId), productId);
+    }
+
+    // Duas abas adicionando o mesmo produto liam o carrinho ao mesmo tempo e criavam itens duplicados ou
+    // sobrescreviam a quantidade uma da outra. O lock do carrinho é mantido até o commit, então a próxima
+    // alteração sempre lê o que a anterior gravou. Vale para uma instância da aplicação.
+    private Cart updateCart(Long cartId, Consumer<Cart> mutation) {
+        return cartLocks.withLock(cartId, () -> {
+            // Fora da transação: a gravação do write-behind usa uma conexão própria
+            cartWriteBehindStore.flushAndEvict(cartId);
+            return transactionTemplate.execute(status -> {
+                Cart cart = cartService.getCartForUpdate(cartId);
+                mutation.accept(cart);
+                return cartRepository.save(cart);
+            });
+        });
+    }
+
+    private void addItem(Cart cart, Long productId, int quantity) {
+        //1. Get the product
+        //2. Check if the product already in the cart
+        //3. If Yes, then increase the quantity with the requested quantity
+        //4. If No, then initiate a new CartItem entry.
         Product product = productService.getProductById(productId);
-        CartItem cartItem = cart.getItems()
-                .stream()
-                .filter(item -> item.getProduct().getId().equals(productId))
-                .findFirst().orElse(new CartItem());
-        if (cartItem.getId() == null) {
-            cartItem.setCart(cart);
+        CartItem cartItem = cart.getItem(productId);
+        if (cartItem == null) {
+            cartItem = new CartItem();
             cartItem.setProduct(product);
             cartItem.setQuantity(quantity);
-            cartItem.setUnitPrice(product.getPrice());
+            cartItem.setUnitPrice(Money.of(product.getPrice()));
+            cartItem.setTotalPrice();
+            cart.addItem(cartItem);
         }
         else {
-            cartItem.setQuantity(cartItem.getQuantity() + quantity);
+            cart.updateItem(cartItem, cartItem.getQuantity() + quantity, cartItem.getUnitPrice());
         }
-        cartItem.setTotalPrice();
-        cart.addItem(cartItem);
         cartItemRepository.save(cartItem);
-        cartRepository.save(cart);
     }
 
-    @Override
-    public void removeItemFromCart(Long cartId, Long productId) {
-        Cart cart = cartService.getCart(cartId);
-        CartItem itemToRemove = getCartItem(cartId, productId);
+    private void removeItem(Cart cart, Long productId) {
+        CartItem itemToRemove = findItem(cart, productId);
         cart.removeItem(itemToRemove);
-        cartRepository.save(cart);
     }
 
-    @Override
-    public void updateItemQuantity(Long cartId, Long productId, int quantity) {
-        Cart cart = cartService.getCart(cartId);
-        cart.getItems()
-                .stream()
-                .filter(item -> item.getProduct().getId().equals(productId))
-                .findFirst()
-                .ifPresent(item -> {
-                    item.setQuantity(quantity);
-                    item.setUnitPrice(item.getProduct().getPrice());
-                    item.setTotalPrice();
-                });
-        BigDecimal totalAmount = cart.getItems()
-                .stream().map(CartItem ::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        cart.setTotalAmount(totalAmount);
-        cartRepository.save(cart);
+    private void updateQuantity(Cart cart, Long productId, int quantity) {
+        CartItem item = cart.getItem(productId);
+        if (item != null) {
+            cart.updateItem(item, quantity, Money.of(item.getProduct().getPrice()));
+        }
     }
 
-    @Override
-    public CartItem getCartItem(Long cartId, Long productId) {
-        Cart cart = cartService.getCart(cartId);
-        return cart.getItems()
-                .stream()
-                .filter(item -> item.getProduct().getId().equals(productId))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException("CartItem not found"));
+    private void applyAll(Cart cart, List<CartItemOperationRequest> operations) {
+        Set<Long> productIds = operations.stream()
+                .filter(operation -> operation.getOp() != CartItemOperationType.REMOVE)
+                .map(CartItemOperationRequest::getProductId)
+                .collect(Collectors.toSet());
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Set<CartItem> newItems = new HashSet<>();
+
+        for (CartItemOperationRequest operation : operations) {
+            Long productId = operation.getProductId();
+            CartItem item = cart.getItem(productId);
+            if (operation.getOp() == CartItemOperationType.REMOVE
+                    || (operation.getOp() == CartItemOperationType.UPDATE && operation.getQuantity() == 0)) {
+                if (item != null) {
+                    cart.removeItem(item);
+                    newItems.remove(item);
+                }
+                continue;
+            }
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new ResourceNotFoundException("Product not found with id: " + productId);
+            }
+            if (item == null) {
+                item = new CartItem();
+                item.setProduct(product);
+                item.setUnitPrice(Money.of(product.getPrice()));
+                item.setTotalPrice();
+                cart.addItem(item);
+                newItems.add(item);
+            }
+            // Mesmas regras das operações avulsas: ADD mantém o preço da linha, UPDATE usa o preço atual
+            if (operation.getOp() == CartItemOperationType.ADD) {
+                cart.updateItem(item, item.getQuantity() + operation.getQuantity(), item.getUnitPrice());
+            } else {
+                cart.updateItem(item, operation.getQuantity(), Money.of(product.getPrice()));
+            }
+        }
+
+        cartItemRepository.saveAll(newItems);
+    }
+
+    private static void validate(CartItemOperationRequest operation) {
+        if (operation.getOp() == null || operation.getProductId() == null) {
+            throw new IllegalArgumentException("Each operation requires op and productId");
+        }
+        int minimum = operation.getOp() == CartItemOperationType.ADD ? 1 : 0;
+        if (operation.getOp() != CartItemOperationType.REMOVE
+                && (operation.getQuantity() == null || operation.getQuantity() < minimum)) {
+            throw new IllegalArgumentException("Invalid quantity for " + operation.getOp() + " of product " + operation.getProductId());
+        }
+    }
+
+    private static CartItem findItem(Cart cart, Long productId) {
+        CartItem item = cart.getItem(productId);
+        if (item == null) {
+            throw new ResourceNotFoundException("CartItem not found");
+        }
+        return item;
     }
 }
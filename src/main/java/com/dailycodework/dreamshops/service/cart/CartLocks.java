@@ -0,0 +1,47 @@
+package com.dailycodework.dreamshops.service.cart;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Locks por faixa dos carrinhos, compartilhados por todos os caminhos que alteram um carrinho no banco
+ * ou em memória. Carrinhos diferentes raramente disputam o mesmo lock, sem um lock global.
+ * ReentrantLock em vez de synchronized: o lock é mantido durante I/O de banco e não prende threads virtuais
+ * à thread portadora. Vale para uma instância da aplicação.
+ */
+@Component
+public class CartLocks {
+    private static final int LOCK_STRIPES = 64;
+
+    private final Lock[] locks = new Lock[LOCK_STRIPES];
+
+    public CartLocks() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock lockFor(Long cartId) {
+        return locks[Math.floorMod(Long.hashCode(cartId), LOCK_STRIPES)];
+    }
+
+    public <T> T withLock(Long cartId, Supplier<T> action) {
+        Lock lock = lockFor(cartId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void withLock(Long cartId, Runnable action) {
+        withLock(cartId, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
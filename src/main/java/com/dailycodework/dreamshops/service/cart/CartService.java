@@ -2,50 +2,91 @@ package com.dailycodework.dreamshops.service.cart;
 
 import com.dailycodework.dreamshops.exceptions.ResourceNotFoundException;
 import com.dailycodework.dreamshops.model.Cart;
+import com.dailycodework.dreamshops.model.Money;
 import com.dailycodework.dreamshops.model.User;
 import com.dailycodework.dreamshops.repository.CartItemRepository;
 import com.dailycodework.dreamshops.repository.CartRepository;
 import com.dailycodework.dreamshops.service.product.IProductService;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicLong;
 
 @Service
-@RequiredArgsConstructor
 public class CartService implements ICartService{
     private final CartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
     private final AtomicLong cartIdGenerator = new AtomicLong(0);
     private final IProductService productService;
+    private final CartWriteBehindStore cartWriteBehindStore;
+    private final CartLocks cartLocks;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
 
+    public CartService(CartRepository cartRepository,
+                       CartItemRepository cartItemRepository,
+                       IProductService productService,
+                       CartWriteBehindStore cartWriteBehindStore,
+                       CartLocks cartLocks,
+                       PlatformTransactionManager transactionManager) {
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.productService = productService;
+        this.cartWriteBehindStore = cartWriteBehindStore;
+        this.cartLocks = cartLocks;
+        // Somente leitura: sem flush nem dirty checking do Hibernate
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    // Com o write-behind ativo, o que estiver pendente em memória é gravado antes de abrir a transação
+    // de leitura: o flush usa uma transação própria e, aberto dentro dela, ocuparia uma segunda conexão.
+    // Pelo mesmo motivo os caminhos de escrita chamam flushAndEvict antes das suas transações
     @Override
     public Cart getCart(Long id) {
-        Cart cart = cartRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart not found"));
-        BigDecimal totalAmount = cart.getTotalAmount();
-        cart.setTotalAmount(totalAmount);
-        return cartRepository.save(cart);
+        cartWriteBehindStore.flush(id);
+        return readTransaction.execute(status -> findCart(id));
     }
 
-
+    // Caminho de escrita: a entidade volta gerenciada e as alterações são gravadas no commit do chamador.
+    // Só lê o banco: quem chama grava e tira o carrinho do write-behind antes de abrir a transação
     @Transactional
     @Override
-    public void clearCart(Long id) {
-        Cart cart = getCart(id);
-        cartItemRepository.deleteAllByCartId(id);
-        cart.getItems().clear();
-        cartRepository.deleteById(id);
+    public Cart getCartForUpdate(Long id) {
+        return findCart(id);
+    }
 
+    private Cart findCart(Long id) {
+        return cartRepository.findWithItemsById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Cart not found"));
+    }
+
+    // O lock do carrinho é tomado antes da transação, como nas alterações de itens: uma adição concorrente
+    // espera o commit e encontra o carrinho já apagado, em vez de gravar um item num carrinho removido
+    @Override
+    public void clearCart(Long id) {
+        cartLocks.withLock(id, () -> {
+            cartWriteBehindStore.flushAndEvict(id);
+            writeTransaction.executeWithoutResult(status -> {
+                Cart cart = getCartForUpdate(id);
+                cartItemRepository.deleteAllByCartId(id);
+                cart.getItems().clear();
+                cartRepository.deleteById(id);
+            });
+        });
     }
 
     @Override
     public BigDecimal getTotalPrice(Long id) {
-        Cart cart = getCart(id);
-        return cart.getTotalAmount();
+        cartWriteBehindStore.flush(id);
+        return readTransaction.execute(status -> cartRepository.findTotalAmountById(id))
+                .map(Money::toBigDecimal)
+                .orElseThrow(() -> new ResourceNotFoundException("Cart not found"));
     }
 
     @Override
@@ -58,6 +99,8 @@ public class CartService implements ICartService{
                 });
     }
 
+    // Só resolve o carrinho do usuário, sem gravar o estado pendente do write-behind: é o caminho de toda
+    // adição ao carrinho. Quem precisa do banco em dia (o pedido) grava o carrinho sob o lock dele
     @Override
     public Cart getCartByUserId(Long userId) {
         return cartRepository.findByUserId(userId);
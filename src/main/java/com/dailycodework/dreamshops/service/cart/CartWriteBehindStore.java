@@ -0,0 +1,239 @@
+package com.dailycodework.dreamshops.service.cart;
+
+import com.dailycodework.dreamshops.exceptions.ResourceNotFoundException;
+import com.dailycodework.dreamshops.model.Cart;
+import com.dailycodework.dreamshops.model.CartItem;
+import com.dailycodework.dreamshops.model.Money;
+import com.dailycodework.dreamshops.model.Product;
+import com.dailycodework.dreamshops.repository.CartRepository;
+import com.dailycodework.dreamshops.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
+
+/**
+ * Carrinhos ativos em memória com gravação posterior (write-behind). Adicionar um item só altera o
+ * estado em memória; os carrinhos alterados são gravados em {@code cart}/{@code cart_item} em lotes a
+ * cada {@code app.cart.write-behind.flush-interval-ms} e no desligamento da aplicação.
+ * Carrinhos sem acesso há mais de {@code app.cart.write-behind.ttl} saem da memória depois de gravados.
+ * <p>
+ * As demais operações (leitura, remoção, pedido) continuam no banco: o {@link CartService} grava o
+ * estado pendente antes de ler e o descarta antes de alterar o carrinho por outro caminho.
+ * Todo acesso a um carrinho em memória, inclusive a gravação, acontece sob o lock do carrinho em
+ * {@link CartLocks}, o mesmo dos caminhos pelo banco: um flush nunca grava por cima de uma alteração
+ * feita depois que o carrinho saiu da memória.
+ * Desativado por padrão ({@code app.cart.write-behind.enabled}); com a flag desligada todos os métodos são no-op.
+ */
+@Slf4j
+@Component
+public class CartWriteBehindStore {
+    private static final int FLUSH_BATCH_SIZE = 100;
+
+    private final Map<Long, CartState> carts = new ConcurrentHashMap<>();
+    private final CartRepository cartRepository;
+    private final ProductRepository productRepository;
+    private final CartLocks cartLocks;
+    private final TransactionTemplate writeTransaction;
+
+    @Value("${app.cart.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.cart.write-behind.ttl:30m}")
+    private Duration ttl;
+
+    public CartWriteBehindStore(CartRepository cartRepository,
+                                ProductRepository productRepository,
+                                CartLocks cartLocks,
+                                PlatformTransactionManager transactionManager) {
+        this.cartRepository = cartRepository;
+        this.productRepository = productRepository;
+        this.cartLocks = cartLocks;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        // Independente da transação do chamador: o que foi gravado aqui já está visível para ele
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void addItem(Long cartId, Product product, int quantity) {
+        cartLocks.withLock(cartId, () -> {
+            CartState state = carts.get(cartId);
+            if (state == null) {
+                state = load(cartId);
+                carts.put(cartId, state);
+            }
+            state.add(product.getId(), Money.of(product.getPrice()), quantity);
+        });
+    }
+
+    // Grava o estado pendente do carrinho, se houver, antes de uma leitura pelo banco
+    public void flush(Long cartId) {
+        if (!carts.containsKey(cartId)) {
+            return;
+        }
+        cartLocks.withLock(cartId, () -> {
+            CartState state = carts.get(cartId);
+            if (state != null) {
+                write(List.of(state));
+            }
+        });
+    }
+
+    // Grava e tira o carrinho da memória: a próxima alteração por outro caminho passa a valer no banco
+    public void flushAndEvict(Long cartId) {
+        if (!carts.containsKey(cartId)) {
+            return;
+        }
+        cartLocks.withLock(cartId, () -> {
+            CartState state = carts.get(cartId);
+            if (state != null) {
+                write(List.of(state));
+                evict(cartId, state);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.cart.write-behind.flush-interval-ms:5000}")
+    public void flushDirty() {
+        if (!enabled || carts.isEmpty()) {
+            return;
+        }
+        // Um lote por faixa de lock: enquanto um lote é gravado, só os carrinhos da mesma faixa esperam
+        Map<Lock, List<CartState>> dirtyByLock = carts.values().stream()
+                .filter(state -> state.dirty)
+                .collect(Collectors.groupingBy(state -> cartLocks.lockFor(state.cartId)));
+        dirtyByLock.forEach((lock, dirty) -> {
+            for (int from = 0; from < dirty.size(); from += FLUSH_BATCH_SIZE) {
+                flushBatch(lock, dirty.subList(from, Math.min(from + FLUSH_BATCH_SIZE, dirty.size())));
+            }
+        });
+        evictIdle();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushDirty();
+    }
+
+    // Se o lote falha, cada carrinho é gravado na sua própria transação; o que ainda falhar (ex.: item de
+    // um produto apagado) é descartado da memória para não impedir a gravação dos demais da faixa
+    private void flushBatch(Lock lock, List<CartState> batch) {
+        lock.lock();
+        try {
+            write(batch);
+        } catch (RuntimeException e) {
+            log.warn("Could not flush {} carts in one batch, retrying one by one: {}", batch.size(), e.getMessage());
+            batch.forEach(this::writeOrDrop);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void writeOrDrop(CartState state) {
+        try {
+            write(List.of(state));
+        } catch (RuntimeException e) {
+            log.error("Dropping pending changes of cart {}, it will be reloaded from the database: {}",
+                    state.cartId, e.getMessage());
+            evict(state.cartId, state);
+        }
+    }
+
+    private void evictIdle() {
+        long deadline = System.nanoTime() - ttl.toNanos();
+        carts.forEach((cartId, state) -> cartLocks.withLock(cartId, () -> {
+            if (!state.dirty && state.lastAccess - deadline < 0) {
+                evict(cartId, state);
+            }
+        }));
+    }
+
+    private void evict(Long cartId, CartState state) {
+        carts.remove(cartId, state);
+    }
+
+    private CartState load(Long cartId) {
+        Cart cart = writeTransaction.execute(status -> cartRepository.findWithItemsById(cartId))
+                .orElseThrow(() -> new ResourceNotFoundException("Cart not found"));
+        CartState state = new CartState(cartId);
+        cart.getItems().forEach(item -> state.lines.put(item.getProduct().getId(),
+                new Line(item.getQuantity(), item.getUnitPrice())));
+        return state;
+    }
+
+    // Chamado com o lock dos carrinhos: só grava os que ainda estão em memória e têm alterações pendentes
+    private void write(List<CartState> states) {
+        List<CartState> pending = states.stream()
+                .filter(state -> state.dirty && carts.get(state.cartId) == state)
+                .toList();
+        if (pending.isEmpty()) {
+            return;
+        }
+        writeTransaction.executeWithoutResult(status -> pending.forEach(this::write));
+        pending.forEach(state -> state.dirty = false);
+    }
+
+    // O estado em memória é a versão autoritativa do carrinho enquanto ele está aqui
+    private void write(CartState state) {
+        Optional<Cart> found = cartRepository.findWithItemsById(state.cartId);
+        if (found.isEmpty()) {
+            // Carrinho apagado (ex.: pedido concluído) enquanto estava em memória
+            return;
+        }
+        Cart cart = found.get();
+        for (CartItem item : new ArrayList<>(cart.getItems())) {
+            if (!state.lines.containsKey(item.getProduct().getId())) {
+                cart.removeItem(item);
+            }
+        }
+        state.lines.forEach((productId, line) -> {
+            CartItem item = cart.getItem(productId);
+            if (item == null) {
+                item = new CartItem();
+                item.setProduct(productRepository.getReferenceById(productId));
+                cart.addItem(item);
+            }
+            cart.updateItem(item, line.quantity(), line.unitPrice());
+        });
+        cartRepository.save(cart);
+    }
+
+    private record Line(int quantity, Money unitPrice) {
+    }
+
+    private static final class CartState {
+        private final Long cartId;
+        private final Map<Long, Line> lines = new HashMap<>();
+        private boolean dirty;
+        private long lastAccess = System.nanoTime();
+
+        private CartState(Long cartId) {
+            this.cartId = cartId;
+        }
+
+        // Mesma regra do CartItemService: o preço é fixado quando o produto entra no carrinho
+        private void add(Long productId, Money price, int quantity) {
+            lines.merge(productId, new Line(quantity, price),
+                    (current, added) -> new Line(current.quantity() + added.quantity(), current.unitPrice()));
+            dirty = true;
+            lastAccess = System.nanoTime();
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package com.dailycodework.dreamshops.service.cart;
 
+import java.util.List;
+
+import com.dailycodework.dreamshops.model.Cart;
 import com.dailycodework.dreamshops.model.CartItem;
+import com.dailycodework.dreamshops.request.CartItemOperationRequest;
 
 public interface ICartItemService {
     
     void addItemToCart(Long cartId, Long productId, int quantity);
     void removeItemFromCart(Long cartId, Long productId);
     void updateItemQuantity(Long cartId, Long productId, int quantity);
+    Cart applyOperations(Long cartId, List<CartItemOperationRequest> operations);
 
     CartItem getCartItem(Long cartId, Long productId);
 }
@@ -7,6 +7,7 @@ import com.dailycodework.dreamshops.model.User;
 
 public interface ICartService {
     Cart getCart(Long id);
+    Cart getCartForUpdate(Long id);
     void clearCart(Long id);
     BigDecimal getTotalPrice(Long id);
     
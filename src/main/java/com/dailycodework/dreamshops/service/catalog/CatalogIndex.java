@@ -0,0 +1,16 @@
+package com.dailycodework.dreamshops.service.catalog;
+
+import com.dailycodework.dreamshops.dto.ProductDto;
+
+import java.util.Collection;
+
+/**
+ * Índice derivado do catálogo. O {@link CatalogReadModel} chama estes métodos dentro do seu lock
+ * de escrita, na mesma ordem em que publica os snapshots.
+ */
+public interface CatalogIndex {
+
+    void rebuild(Collection<ProductDto> products);
+
+    void apply(Collection<ProductDto> upserts, Collection<Long> removedIds);
+}
@@ -0,0 +1,61 @@
+package com.dailycodework.dreamshops.service.catalog;
+
+import com.dailycodework.dreamshops.dto.ProductDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Modelo de leitura do catálogo em memória. Leitores apenas obtêm o snapshot atual, sem locks;
+ * escritores são serializados e publicam um novo snapshot de forma atômica.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogReadModel {
+    private final List<CatalogIndex> indexes;
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+    private final Object writeLock = new Object();
+
+    /**
+     * Snapshot atual, vazio enquanto a carga inicial não terminou.
+     */
+    public Optional<CatalogSnapshot> snapshot() {
+        return Optional.ofNullable(current.get());
+    }
+
+    public void load(Supplier<Collection<ProductDto>> loader) {
+        synchronized (writeLock) {
+            Collection<ProductDto> products = loader.get();
+            indexes.forEach(index -> index.rebuild(products));
+            current.set(CatalogSnapshot.of(products));
+        }
+    }
+
+    /**
+     * Relê os produtos informados e aplica as mudanças no snapshot. Ids que o loader não
+     * devolver são tratados como removidos. A leitura acontece dentro do lock para que
+     * atualizações concorrentes sejam aplicadas na ordem em que leram o banco.
+     */
+    public void refresh(Collection<Long> productIds, Function<Collection<Long>, Collection<ProductDto>> loader) {
+        synchronized (writeLock) {
+            CatalogSnapshot snapshot = current.get();
+            if (snapshot == null) {
+                // A carga inicial ainda não rodou e vai ler o estado atual do banco
+                return;
+            }
+            Collection<ProductDto> products = loader.apply(productIds);
+            Set<Long> removedIds = new HashSet<>(productIds);
+            products.forEach(product -> removedIds.remove(product.getId()));
+            indexes.forEach(index -> index.apply(products, removedIds));
+            current.set(snapshot.withChanges(products, removedIds));
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.dailycodework.dreamshops.service.catalog;
+
+// Pede a recarga completa do catálogo, usada após operações em lote que não passam pelo ProductService
+public class CatalogReloadEvent {
+}
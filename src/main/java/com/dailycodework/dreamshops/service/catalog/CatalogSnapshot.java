@@ -0,0 +1,222 @@
+package com.dailycodework.dreamshops.service.catalog;
+
+import com.dailycodework.dreamshops.dto.ProductDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Visão imutável do catálogo: os ProductDto indexados por id, marca, nome da categoria e nome.
+ * Cada lote de alterações gera um novo snapshot (ver {@link CatalogSynchronizer}); os índices
+ * secundários guardam ids ordenados para permitir paginação por cursor e interseções sem tocar no banco.
+ * Os ProductDto são compartilhados entre requisições e não devem ser modificados.
+ */
+public final class CatalogSnapshot {
+    private static final long[] NO_IDS = new long[0];
+
+    private final NavigableMap<Long, ProductDto> productsById;
+    private final Map<String, long[]> idsByBrand;
+    private final Map<String, long[]> idsByCategory;
+    private final Map<String, long[]> idsByName;
+
+    private CatalogSnapshot(NavigableMap<Long, ProductDto> productsById,
+                            Map<String, long[]> idsByBrand,
+                            Map<String, long[]> idsByCategory,
+                            Map<String, long[]> idsByName) {
+        this.productsById = productsById;
+        this.idsByBrand = idsByBrand;
+        this.idsByCategory = idsByCategory;
+        this.idsByName = idsByName;
+    }
+
+    static CatalogSnapshot of(Collection<ProductDto> products) {
+        CatalogSnapshot empty = new CatalogSnapshot(new TreeMap<>(), Map.of(), Map.of(), Map.of());
+        return empty.withChanges(products, List.of());
+    }
+
+    CatalogSnapshot withChanges(Collection<ProductDto> upserts, Collection<Long> removedIds) {
+        TreeMap<Long, ProductDto> products = new TreeMap<>(productsById);
+        IndexPatch brands = new IndexPatch(idsByBrand);
+        IndexPatch categories = new IndexPatch(idsByCategory);
+        IndexPatch names = new IndexPatch(idsByName);
+
+        for (Long id : removedIds) {
+            ProductDto previous = products.remove(id);
+            if (previous != null) {
+                brands.remove(previous.getBrand(), id);
+                categories.remove(categoryName(previous), id);
+                names.remove(previous.getName(), id);
+            }
+        }
+        for (ProductDto product : upserts) {
+            Long id = product.getId();
+            ProductDto previous = products.put(id, product);
+            if (previous != null) {
+                brands.remove(previous.getBrand(), id);
+                categories.remove(categoryName(previous), id);
+                names.remove(previous.getName(), id);
+            }
+            brands.add(product.getBrand(), id);
+            categories.add(categoryName(product), id);
+            names.add(product.getName(), id);
+        }
+        return new CatalogSnapshot(Collections.unmodifiableNavigableMap(products),
+                brands.build(), categories.build(), names.build());
+    }
+
+    public int size() {
+        return productsById.size();
+    }
+
+    public Collection<ProductDto> products() {
+        return productsById.values();
+    }
+
+    public Optional<ProductDto> findById(Long id) {
+        return Optional.ofNullable(productsById.get(id));
+    }
+
+    public List<ProductDto> findAll(long after, int limit) {
+        List<ProductDto> result = new ArrayList<>(Math.min(limit, productsById.size()));
+        for (ProductDto product : productsById.tailMap(after, false).values()) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(product);
+        }
+        return result;
+    }
+
+    public List<ProductDto> findByBrand(String brand, long after, int limit) {
+        return slice(idsByBrand.getOrDefault(brand, NO_IDS), after, limit);
+    }
+
+    public List<ProductDto> findByCategory(String category, long after, int limit) {
+        return slice(idsByCategory.getOrDefault(category, NO_IDS), after, limit);
+    }
+
+    public List<ProductDto> findByName(String name, long after, int limit) {
+        return slice(idsByName.getOrDefault(name, NO_IDS), after, limit);
+    }
+
+    public List<ProductDto> findByCategoryAndBrand(String category, String brand, long after, int limit) {
+        return intersect(idsByCategory.getOrDefault(category, NO_IDS), idsByBrand.getOrDefault(brand, NO_IDS), after, limit);
+    }
+
+    public List<ProductDto> findByBrandAndName(String brand, String name, long after, int limit) {
+        return intersect(idsByBrand.getOrDefault(brand, NO_IDS), idsByName.getOrDefault(name, NO_IDS), after, limit);
+    }
+
+    public long countByBrandAndName(String brand, String name) {
+        long[] left = idsByBrand.getOrDefault(brand, NO_IDS);
+        long[] right = idsByName.getOrDefault(name, NO_IDS);
+        long count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] == right[j]) {
+                count++;
+                i++;
+                j++;
+            } else if (left[i] < right[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return count;
+    }
+
+    private List<ProductDto> slice(long[] ids, long after, int limit) {
+        int from = firstAfter(ids, after);
+        int to = Math.min(ids.length, from + limit);
+        List<ProductDto> result = new ArrayList<>(Math.max(to - from, 0));
+        for (int i = from; i < to; i++) {
+            result.add(productsById.get(ids[i]));
+        }
+        return result;
+    }
+
+    private List<ProductDto> intersect(long[] left, long[] right, long after, int limit) {
+        List<ProductDto> result = new ArrayList<>();
+        int i = firstAfter(left, after);
+        int j = firstAfter(right, after);
+        while (i < left.length && j < right.length && result.size() < limit) {
+            if (left[i] == right[j]) {
+                result.add(productsById.get(left[i]));
+                i++;
+                j++;
+            } else if (left[i] < right[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return result;
+    }
+
+    private static int firstAfter(long[] ids, long after) {
+        int index = Arrays.binarySearch(ids, after);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    static String categoryName(ProductDto product) {
+        return product.getCategory() == null ? null : product.getCategory().getName();
+    }
+
+    // Reescreve apenas as chaves afetadas; as demais listas de ids são compartilhadas com o snapshot anterior
+    private static final class IndexPatch {
+        private final Map<String, long[]> base;
+        private final Map<String, TreeSet<Long>> touched = new HashMap<>();
+
+        private IndexPatch(Map<String, long[]> base) {
+            this.base = base;
+        }
+
+        void add(String key, Long id) {
+            if (key != null) {
+                ids(key).add(id);
+            }
+        }
+
+        void remove(String key, Long id) {
+            if (key != null) {
+                ids(key).remove(id);
+            }
+        }
+
+        private TreeSet<Long> ids(String key) {
+            return touched.computeIfAbsent(key, k -> {
+                TreeSet<Long> ids = new TreeSet<>();
+                for (long id : base.getOrDefault(k, NO_IDS)) {
+                    ids.add(id);
+                }
+                return ids;
+            });
+        }
+
+        Map<String, long[]> build() {
+            if (touched.isEmpty()) {
+                return base;
+            }
+            Map<String, long[]> index = new HashMap<>(base);
+            touched.forEach((key, ids) -> {
+                if (ids.isEmpty()) {
+                    index.remove(key);
+                } else {
+                    index.put(key, ids.stream().mapToLong(Long::longValue).toArray());
+                }
+            });
+            return Collections.unmodifiableMap(index);
+        }
+    }
+}
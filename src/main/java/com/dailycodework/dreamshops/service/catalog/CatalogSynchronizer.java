@@ -0,0 +1,189 @@
+package com.dailycodework.dreamshops.service.catalog;
+
+import com.dailycodework.dreamshops.dto.ProductDto;
+import com.dailycodework.dreamshops.model.Product;
+import com.dailycodework.dreamshops.repository.ProductRepository;
+import com.dailycodework.dreamshops.service.product.IProductService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Mantém o {@link CatalogReadModel} em sincronia com o banco: carrega o catálogo na subida
+ * da aplicação e relê os produtos alterados depois que a transação que os modificou faz commit.
+ * <p>
+ * Aplicar uma alteração gera um novo snapshot do catálogo e dos índices, o que custa O(catálogo).
+ * Por isso as alterações não são aplicadas na thread da requisição: os ids alterados entram numa
+ * fila e uma única thread de fundo aplica, de uma vez, tudo o que se acumulou desde a última
+ * aplicação. Sob carga, muitas escritas dividem o custo de uma única cópia.
+ * <p>
+ * Consequência: logo depois do commit, as leituras servidas pelo catálogo ainda podem devolver
+ * a versão anterior do produto. Se a aplicação falhar, os ids voltam para a fila e são tentados
+ * de novo com espera crescente.
+ */
+@Slf4j
+@Component
+public class CatalogSynchronizer {
+    private static final int BATCH_SIZE = 500;
+    private static final Duration FIRST_RETRY_DELAY = Duration.ofMillis(500);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(1);
+
+    private final ProductRepository productRepository;
+    private final IProductService productService;
+    private final CatalogReadModel catalogReadModel;
+    private final TransactionTemplate readTransaction;
+    private final Set<Long> pendingIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(
+            Thread.ofVirtual().name("catalog-refresh").factory());
+    // Só a thread do refresher lê e altera
+    private Duration retryDelay = FIRST_RETRY_DELAY;
+
+    @Value("${app.catalog.read-model.enabled:true}")
+    private boolean enabled;
+
+    public CatalogSynchronizer(ProductRepository productRepository,
+                               IProductService productService,
+                               CatalogReadModel catalogReadModel,
+                               PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.productService = productService;
+        this.catalogReadModel = catalogReadModel;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCatalog() {
+        if (!enabled) {
+            return;
+        }
+        catalogReadModel.load(this::readAllProducts);
+    }
+
+    // A recarga roda na thread do refresher, em fila com as atualizações: quem pediu não espera nem vê a falha
+    @EventListener(CatalogReloadEvent.class)
+    public void onCatalogReload() {
+        if (!enabled || refresher.isShutdown()) {
+            return;
+        }
+        refresher.execute(() -> {
+            try {
+                loadCatalog();
+            } catch (RuntimeException e) {
+                // O catálogo continua com o snapshot anterior até a próxima recarga
+                log.error("Could not reload the catalog read model: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        pendingIds.addAll(event.getProductIds());
+        scheduleRefresh();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private void scheduleRefresh() {
+        if (!pendingIds.isEmpty() && !refresher.isShutdown() && refreshScheduled.compareAndSet(false, true)) {
+            refresher.execute(this::refreshPending);
+        }
+    }
+
+    private void refreshPending() {
+        try {
+            List<Long> ids;
+            while (!(ids = drainPending()).isEmpty()) {
+                if (!applyChanges(ids)) {
+                    // Os ids voltam para a fila e se juntam às alterações que chegarem durante a espera
+                    pendingIds.addAll(ids);
+                    TimeUnit.MILLISECONDS.sleep(retryDelay.toMillis());
+                    Duration doubled = retryDelay.multipliedBy(2);
+                    retryDelay = doubled.compareTo(MAX_RETRY_DELAY) < 0 ? doubled : MAX_RETRY_DELAY;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            refreshScheduled.set(false);
+            // Ids que chegaram entre o último drain e a liberação da flag
+            scheduleRefresh();
+        }
+    }
+
+    private List<Long> drainPending() {
+        List<Long> ids = new ArrayList<>();
+        for (Iterator<Long> it = pendingIds.iterator(); it.hasNext(); ) {
+            ids.add(it.next());
+            it.remove();
+        }
+        return ids;
+    }
+
+    private boolean applyChanges(List<Long> ids) {
+        try {
+            catalogReadModel.refresh(ids, this::readProducts);
+            retryDelay = FIRST_RETRY_DELAY;
+            return true;
+        } catch (RuntimeException e) {
+            // O catálogo continua com a versão anterior desses produtos até uma nova tentativa dar certo
+            log.warn("Could not refresh {} products in the catalog read model, retrying in {}: {}",
+                    ids.size(), retryDelay, e.getMessage());
+            return false;
+        }
+    }
+
+    private List<ProductDto> readAllProducts() {
+        List<ProductDto> products = new ArrayList<>();
+        long after = 0L;
+        List<ProductDto> batch;
+        do {
+            long cursor = after;
+            batch = readTransaction.execute(status -> productService.getConvertedProducts(
+                    productRepository.findByIdGreaterThanOrderByIdAsc(cursor, PageRequest.ofSize(BATCH_SIZE))));
+            products.addAll(batch);
+            if (!batch.isEmpty()) {
+                after = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == BATCH_SIZE);
+        return products;
+    }
+
+    private List<ProductDto> readProducts(Collection<Long> productIds) {
+        List<Long> ids = List.copyOf(productIds);
+        List<ProductDto> products = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + BATCH_SIZE));
+            products.addAll(readTransaction.execute(status -> {
+                List<Product> found = productRepository.findAllById(chunk);
+                return productService.getConvertedProducts(found);
+            }));
+        }
+        return products;
+    }
+}
@@ -0,0 +1,17 @@
+package com.dailycodework.dreamshops.service.catalog;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collection;
+import java.util.List;
+
+@Getter
+@RequiredArgsConstructor
+public class ProductChangedEvent {
+    private final Collection<Long> productIds;
+
+    public static ProductChangedEvent of(Long productId) {
+        return new ProductChangedEvent(List.of(productId));
+    }
+}
@@ -0,0 +1,240 @@
+package com.dailycodework.dreamshops.service.catalog;
+
+import com.dailycodework.dreamshops.dto.ProductDto;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Facetas de marca e categoria sobre o catálogo. Cada produto recebe um ordinal denso e cada
+ * marca/categoria guarda um bitset (long[]) desses ordinais, de modo que filtrar e contar
+ * produtos por faceta são operações AND + bitCount sobre arrays de long.
+ */
+@Component
+public class ProductFacetIndex implements CatalogIndex {
+    private static final long[] EMPTY_BITS = new long[0];
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(Snapshot.EMPTY);
+
+    // Estado do escritor, alterado só dentro do lock de escrita do CatalogReadModel. Os leitores
+    // veem apenas o Snapshot publicado.
+    private final Map<Long, Integer> ordinalById = new HashMap<>();
+    private String[] brands = new String[0];
+    private String[] categories = new String[0];
+
+    public record FacetResult(int total, List<Long> productIds,
+                              Map<String, Integer> brandCounts, Map<String, Integer> categoryCounts) {
+    }
+
+    @Override
+    public void rebuild(Collection<ProductDto> products) {
+        ordinalById.clear();
+        brands = new String[0];
+        categories = new String[0];
+        current.set(withChanges(Snapshot.EMPTY, products, List.of()));
+    }
+
+    @Override
+    public void apply(Collection<ProductDto> upserts, Collection<Long> removedIds) {
+        current.set(withChanges(current.get(), upserts, removedIds));
+    }
+
+    /**
+     * Produtos que atendem aos filtros informados (null = sem filtro), junto com as contagens por
+     * marca considerando apenas o filtro de categoria e por categoria considerando apenas o de marca.
+     */
+    public FacetResult facets(String category, String brand, int limit) {
+        Snapshot snapshot = current.get();
+        long[] inCategory = category == null ? snapshot.live : and(snapshot.live, snapshot.bits(snapshot.categoryBits, category));
+        long[] ofBrand = brand == null ? snapshot.live : and(snapshot.live, snapshot.bits(snapshot.brandBits, brand));
+        long[] selected = and(inCategory, ofBrand);
+
+        List<Long> productIds = new ArrayList<>(Math.min(limit, snapshot.size));
+        for (int word = 0; word < selected.length && productIds.size() < limit; word++) {
+            long bits = selected[word];
+            while (bits != 0 && productIds.size() < limit) {
+                int ordinal = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                productIds.add(snapshot.ids[ordinal]);
+                bits &= bits - 1;
+            }
+        }
+        return new FacetResult(cardinality(selected), productIds,
+                counts(snapshot.brandBits, inCategory), counts(snapshot.categoryBits, ofBrand));
+    }
+
+    private static Map<String, Integer> counts(Map<String, long[]> facet, long[] filter) {
+        List<Map.Entry<String, Integer>> counts = new ArrayList<>(facet.size());
+        facet.forEach((value, bits) -> {
+            int count = intersectionCount(bits, filter);
+            if (count > 0) {
+                counts.add(Map.entry(value, count));
+            }
+        });
+        counts.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Integer> ordered = new LinkedHashMap<>();
+        counts.forEach(entry -> ordered.put(entry.getKey(), entry.getValue()));
+        return ordered;
+    }
+
+    private static long[] and(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = left[i] & right[i];
+        }
+        return result;
+    }
+
+    private static int intersectionCount(long[] left, long[] right) {
+        int count = 0;
+        int length = Math.min(left.length, right.length);
+        for (int i = 0; i < length; i++) {
+            count += Long.bitCount(left[i] & right[i]);
+        }
+        return count;
+    }
+
+    private static int cardinality(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    // Custo proporcional às facetas alteradas: o array de ids só cresce (ordinais novos ficam além do
+    // tamanho dos snapshots anteriores e podem ser compartilhados), e só os bitsets do live e das
+    // marcas/categorias afetadas são copiados
+    private Snapshot withChanges(Snapshot base, Collection<ProductDto> upserts, Collection<Long> removedIds) {
+        int capacity = base.size + upserts.size();
+        long[] newIds = base.ids;
+        if (capacity > newIds.length) {
+            newIds = Arrays.copyOf(newIds, Math.max(capacity, newIds.length * 2));
+            brands = Arrays.copyOf(brands, newIds.length);
+            categories = Arrays.copyOf(categories, newIds.length);
+        }
+        int words = words(newIds.length);
+        long[] newLive = Arrays.copyOf(base.live, words);
+        BitsPatch brandPatch = new BitsPatch(base.brandBits, words);
+        BitsPatch categoryPatch = new BitsPatch(base.categoryBits, words);
+        int newSize = base.size;
+
+        for (Long id : removedIds) {
+            Integer ordinal = ordinalById.remove(id);
+            if (ordinal != null) {
+                clear(newLive, ordinal);
+                brandPatch.clear(brands[ordinal], ordinal);
+                categoryPatch.clear(categories[ordinal], ordinal);
+                brands[ordinal] = null;
+                categories[ordinal] = null;
+            }
+        }
+        for (ProductDto product : upserts) {
+            String category = CatalogSnapshot.categoryName(product);
+            Integer ordinal = ordinalById.get(product.getId());
+            if (ordinal == null) {
+                ordinal = newSize++;
+                ordinalById.put(product.getId(), ordinal);
+                newIds[ordinal] = product.getId();
+                set(newLive, ordinal);
+            } else if (Objects.equals(brands[ordinal], product.getBrand())
+                    && Objects.equals(categories[ordinal], category)) {
+                continue;
+            } else {
+                brandPatch.clear(brands[ordinal], ordinal);
+                categoryPatch.clear(categories[ordinal], ordinal);
+            }
+            brands[ordinal] = product.getBrand();
+            categories[ordinal] = category;
+            brandPatch.set(product.getBrand(), ordinal);
+            categoryPatch.set(category, ordinal);
+        }
+        return new Snapshot(newIds, newSize, newLive, brandPatch.build(), categoryPatch.build());
+    }
+
+    private static int words(int bits) {
+        return (bits + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    private static void set(long[] bits, int ordinal) {
+        bits[ordinal / Long.SIZE] |= 1L << ordinal;
+    }
+
+    private static void clear(long[] bits, int ordinal) {
+        bits[ordinal / Long.SIZE] &= ~(1L << ordinal);
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new long[0], 0, EMPTY_BITS, Map.of(), Map.of());
+
+        // Ordinais de produtos removidos ficam livres até a próxima carga completa
+        final long[] ids;
+        final int size;
+        final long[] live;
+        final Map<String, long[]> brandBits;
+        final Map<String, long[]> categoryBits;
+
+        Snapshot(long[] ids, int size, long[] live, Map<String, long[]> brandBits, Map<String, long[]> categoryBits) {
+            this.ids = ids;
+            this.size = size;
+            this.live = live;
+            this.brandBits = brandBits;
+            this.categoryBits = categoryBits;
+        }
+
+        long[] bits(Map<String, long[]> facet, String value) {
+            return facet.getOrDefault(value, EMPTY_BITS);
+        }
+    }
+
+    // Copia apenas os bitsets das marcas/categorias afetadas
+    private static final class BitsPatch {
+        private final Map<String, long[]> base;
+        private final int words;
+        private final Map<String, long[]> touched = new HashMap<>();
+
+        BitsPatch(Map<String, long[]> base, int words) {
+            this.base = base;
+            this.words = words;
+        }
+
+        void set(String value, int ordinal) {
+            if (value != null) {
+                ProductFacetIndex.set(bits(value), ordinal);
+            }
+        }
+
+        void clear(String value, int ordinal) {
+            if (value != null) {
+                ProductFacetIndex.clear(bits(value), ordinal);
+            }
+        }
+
+        private long[] bits(String value) {
+            return touched.computeIfAbsent(value, v -> Arrays.copyOf(base.getOrDefault(v, EMPTY_BITS), words));
+        }
+
+        Map<String, long[]> build() {
+            if (touched.isEmpty()) {
+                return base;
+            }
+            Map<String, long[]> facet = new HashMap<>(base);
+            touched.forEach((value, bits) -> {
+                if (cardinality(bits) == 0) {
+                    facet.remove(value);
+                } else {
+                    facet.put(value, bits);
+                }
+            });
+            return Collections.unmodifiableMap(facet);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.dailycodework.dreamshops.service.catalog;
+
+import com.dailycodework.dreamshops.dto.ProductDto;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Índice invertido para busca textual em nome, marca e descrição dos produtos, com ranking BM25.
+ * Cada termo aponta para uma lista ordenada de ids com a frequência ponderada do termo no produto;
+ * uma consulta percorre apenas as listas dos termos pesquisados.
+ */
+@Component
+public class ProductSearchIndex implements CatalogIndex {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int NAME_WEIGHT = 3;
+    private static final int BRAND_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(Snapshot.EMPTY);
+
+    @Override
+    public void rebuild(Collection<ProductDto> products) {
+        current.set(Snapshot.EMPTY.withChanges(products, List.of()));
+    }
+
+    @Override
+    public void apply(Collection<ProductDto> upserts, Collection<Long> removedIds) {
+        current.set(current.get().withChanges(upserts, removedIds));
+    }
+
+    /**
+     * Ids dos produtos mais relevantes para a consulta, do maior para o menor score.
+     */
+    public List<Long> search(String query, int limit) {
+        Snapshot snapshot = current.get();
+        if (snapshot.documents.isEmpty()) {
+            return List.of();
+        }
+        double averageLength = (double) snapshot.totalLength / snapshot.documents.size();
+        Map<Long, Double> scores = new HashMap<>();
+        for (String term : new LinkedHashSet<>(CatalogText.tokenize(query))) {
+            Postings postings = snapshot.postingsByTerm.get(term);
+            if (postings == null) {
+                continue;
+            }
+            int documentFrequency = postings.ids.length;
+            double idf = Math.log(1 + (snapshot.documents.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+            for (int i = 0; i < postings.ids.length; i++) {
+                int termFrequency = postings.frequencies[i];
+                int length = snapshot.documents.get(postings.ids[i]).length;
+                double norm = K1 * (1 - B + B * length / averageLength);
+                double score = idf * termFrequency * (K1 + 1) / (termFrequency + norm);
+                scores.merge(postings.ids[i], score, Double::sum);
+            }
+        }
+        return topK(scores, limit);
+    }
+
+    private static List<Long> topK(Map<Long, Double> scores, int limit) {
+        Comparator<Map.Entry<Long, Double>> byRelevance = Map.Entry.<Long, Double>comparingByValue()
+                .reversed()
+                .thenComparing(Map.Entry.comparingByKey());
+        PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(byRelevance.reversed());
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            best.offer(entry);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(best);
+        ranked.sort(byRelevance);
+        return ranked.stream().map(Map.Entry::getKey).toList();
+    }
+
+    private static Map<String, Integer> termFrequencies(ProductDto product) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        CatalogText.tokenize(product.getName()).forEach(term -> frequencies.merge(term, NAME_WEIGHT, Integer::sum));
+        CatalogText.tokenize(product.getBrand()).forEach(term -> frequencies.merge(term, BRAND_WEIGHT, Integer::sum));
+        CatalogText.tokenize(product.getDescription()).forEach(term -> frequencies.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+        return frequencies;
+    }
+
+    private record Postings(long[] ids, int[] frequencies) {
+    }
+
+    private record Document(Set<String> terms, int length) {
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), 0L);
+
+        final Map<String, Postings> postingsByTerm;
+        final Map<Long, Document> documents;
+        final long totalLength;
+
+        Snapshot(Map<String, Postings> postingsByTerm, Map<Long, Document> documents, long totalLength) {
+            this.postingsByTerm = postingsByTerm;
+            this.documents = documents;
+            this.totalLength = totalLength;
+        }
+
+        // Copia apenas as listas dos termos afetados; as demais são compartilhadas com o snapshot anterior
+        Snapshot withChanges(Collection<ProductDto> upserts, Collection<Long> removedIds) {
+            Map<Long, Document> newDocuments = new HashMap<>(documents);
+            Map<String, TreeMap<Long, Integer>> touched = new HashMap<>();
+            long newTotalLength = totalLength;
+
+            List<Long> staleIds = new ArrayList<>(removedIds);
+            upserts.forEach(product -> staleIds.add(product.getId()));
+            for (Long id : staleIds) {
+                Document previous = newDocuments.remove(id);
+                if (previous != null) {
+                    newTotalLength -= previous.length;
+                    previous.terms.forEach(term -> postings(touched, term).remove(id));
+                }
+            }
+            for (ProductDto product : upserts) {
+                Map<String, Integer> frequencies = termFrequencies(product);
+                int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+                frequencies.forEach((term, frequency) -> postings(touched, term).put(product.getId(), frequency));
+                newDocuments.put(product.getId(), new Document(Set.copyOf(frequencies.keySet()), length));
+                newTotalLength += length;
+            }
+
+            Map<String, Postings> newPostings = new HashMap<>(postingsByTerm);
+            touched.forEach((term, entries) -> {
+                if (entries.isEmpty()) {
+                    newPostings.remove(term);
+                    return;
+                }
+                long[] ids = new long[entries.size()];
+                int[] frequencies = new int[entries.size()];
+                int i = 0;
+                for (Map.Entry<Long, Integer> entry : entries.entrySet()) {
+                    ids[i] = entry.getKey();
+                    frequencies[i] = entry.getValue();
+                    i++;
+                }
+                newPostings.put(term, new Postings(ids, frequencies));
+            });
+            return new Snapshot(Collections.unmodifiableMap(newPostings),
+                    Collections.unmodifiableMap(newDocuments), newTotalLength);
+        }
+
+        private TreeMap<Long, Integer> postings(Map<String, TreeMap<Long, Integer>> touched, String term) {
+            return touched.computeIfAbsent(term, t -> {
+                TreeMap<Long, Integer> entries = new TreeMap<>();
+                Postings existing = postingsByTerm.get(t);
+                if (existing != null) {
+                    for (int i = 0; i < existing.ids.length; i++) {
+                        entries.put(existing.ids[i], existing.frequencies[i]);
+                    }
+                }
+                return entries;
+            });
+        }
+    }
+}
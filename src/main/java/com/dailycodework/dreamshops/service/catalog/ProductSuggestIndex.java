@@ -0,0 +1,174 @@
+package com.dailycodework.dreamshops.service.catalog;
+
+import com.dailycodework.dreamshops.dto.ProductDto;
+import com.dailycodework.dreamshops.dto.ProductSuggestionDto;
+import com.dailycodework.dreamshops.enums.SuggestionType;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Autocomplete por prefixo sobre nomes e marcas de produtos. Os termos distintos ficam num array
+ * ordenado pela forma normalizada (minúsculas, sem acentos); um prefixo vira uma busca binária
+ * seguida da varredura do intervalo que começa com ele, mantendo apenas os top-k mais populares.
+ * A popularidade de um termo é a quantidade de produtos do catálogo que o utilizam.
+ */
+@Component
+public class ProductSuggestIndex implements CatalogIndex {
+    private static final Comparator<Term> TERM_ORDER = Comparator.comparing(Term::key)
+            .thenComparing(Term::text)
+            .thenComparing(Term::type);
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(Snapshot.EMPTY);
+
+    // Estado do escritor, alterado só dentro do lock de escrita do CatalogReadModel
+    private final Map<Term, Integer> counts = new HashMap<>();
+    private final Map<Long, List<Term>> termsByProduct = new HashMap<>();
+
+    @Override
+    public void rebuild(Collection<ProductDto> products) {
+        counts.clear();
+        termsByProduct.clear();
+        current.set(withChanges(Snapshot.EMPTY, products, List.of()));
+    }
+
+    @Override
+    public void apply(Collection<ProductDto> upserts, Collection<Long> removedIds) {
+        current.set(withChanges(current.get(), upserts, removedIds));
+    }
+
+    public List<ProductSuggestionDto> suggest(String prefix, int limit) {
+        String key = CatalogText.normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        Snapshot snapshot = current.get();
+        Comparator<Integer> byPopularity = Comparator.<Integer>comparingInt(i -> snapshot.popularity[i])
+                .reversed()
+                .thenComparing(i -> snapshot.terms[i], TERM_ORDER);
+        PriorityQueue<Integer> best = new PriorityQueue<>(byPopularity.reversed());
+        for (int i = lowerBound(snapshot.terms, key); i < snapshot.terms.length && snapshot.terms[i].key().startsWith(key); i++) {
+            best.offer(i);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Integer> ranked = new ArrayList<>(best);
+        ranked.sort(byPopularity);
+        return ranked.stream()
+                .map(i -> new ProductSuggestionDto(snapshot.terms[i].text(), snapshot.terms[i].type(), snapshot.popularity[i]))
+                .toList();
+    }
+
+    private static int lowerBound(Term[] terms, String key) {
+        int low = 0;
+        int high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].key().compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private record Term(String key, String text, SuggestionType type) {
+        static Term of(String text, SuggestionType type) {
+            return text == null || text.isBlank() ? null : new Term(CatalogText.normalize(text), text, type);
+        }
+    }
+
+    private Snapshot withChanges(Snapshot base, Collection<ProductDto> upserts, Collection<Long> removedIds) {
+        Set<Term> changed = new HashSet<>();
+        List<Long> staleIds = new ArrayList<>(removedIds);
+        upserts.forEach(product -> staleIds.add(product.getId()));
+        for (Long id : staleIds) {
+            List<Term> previous = termsByProduct.remove(id);
+            if (previous != null) {
+                previous.forEach(term -> {
+                    counts.computeIfPresent(term, (t, count) -> count > 1 ? count - 1 : null);
+                    changed.add(term);
+                });
+            }
+        }
+        for (ProductDto product : upserts) {
+            List<Term> productTerms = new ArrayList<>(2);
+            Term name = Term.of(product.getName(), SuggestionType.NAME);
+            Term brand = Term.of(product.getBrand(), SuggestionType.BRAND);
+            if (name != null) {
+                productTerms.add(name);
+            }
+            if (brand != null) {
+                productTerms.add(brand);
+            }
+            productTerms.forEach(term -> {
+                counts.merge(term, 1, Integer::sum);
+                changed.add(term);
+            });
+            termsByProduct.put(product.getId(), List.copyOf(productTerms));
+        }
+        if (changed.isEmpty()) {
+            return base;
+        }
+
+        // Caso comum (preço, estoque, descrição ou um produto a mais com nome/marca já existentes):
+        // nenhum termo entra nem sai, e só as popularidades alteradas são reescritas
+        boolean sameTerms = changed.stream()
+                .allMatch(term -> counts.containsKey(term) == (base.indexOf(term) >= 0));
+        if (sameTerms) {
+            int[] popularity = base.popularity.clone();
+            changed.forEach(term -> popularity[base.indexOf(term)] = counts.get(term));
+            return new Snapshot(base.terms, popularity);
+        }
+
+        // Intercala o array ordenado atual (sem os termos alterados) com os termos alterados reordenados;
+        // as popularidades dos termos não alterados são copiadas do snapshot anterior
+        List<Term> updated = changed.stream().filter(counts::containsKey).sorted(TERM_ORDER).toList();
+        Term[] terms = new Term[base.terms.length + updated.size()];
+        int[] popularity = new int[terms.length];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < base.terms.length || j < updated.size()) {
+            if (i < base.terms.length && changed.contains(base.terms[i])) {
+                i++;
+            } else if (j >= updated.size() || (i < base.terms.length && TERM_ORDER.compare(base.terms[i], updated.get(j)) < 0)) {
+                terms[size] = base.terms[i];
+                popularity[size++] = base.popularity[i++];
+            } else {
+                terms[size] = updated.get(j++);
+                popularity[size] = counts.get(terms[size]);
+                size++;
+            }
+        }
+        return new Snapshot(Arrays.copyOf(terms, size), Arrays.copyOf(popularity, size));
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new Term[0], new int[0]);
+
+        final Term[] terms;
+        final int[] popularity;
+
+        Snapshot(Term[] terms, int[] popularity) {
+            this.terms = terms;
+            this.popularity = popularity;
+        }
+
+        int indexOf(Term term) {
+            return Arrays.binarySearch(terms, term, TERM_ORDER);
+        }
+    }
+}
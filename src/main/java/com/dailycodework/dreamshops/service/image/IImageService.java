@@ -1,17 +1,29 @@
 package com.dailycodework.dreamshops.service.image;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 
+import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.dailycodework.dreamshops.dto.ImageDto;
 import com.dailycodework.dreamshops.model.Image;
+import com.dailycodework.dreamshops.repository.ImageRepository.ImageFile;
 
 public interface IImageService {
     
     Image getImageById(Long id);
+    Image getImageByContentHash(String contentHash);
     List<ImageDto> saveImages(List<MultipartFile> files, Long productId);
+    ImageDto saveImage(InputStream content, String fileName, String contentType, Long productId);
     Image updateImage(MultipartFile file, Long imageId);
+    Resource getImageContent(Image image);
+    Resource getContent(String contentHash);
     void deleteImageById(Long id);
+    List<ImageFile> getProductImageFiles(Long productId);
+    List<ImageFile> getCategoryImageFiles(String category);
+    void writeZip(List<ImageFile> files, OutputStream out) throws IOException;
 
 }
@@ -0,0 +1,100 @@
+package com.dailycodework.dreamshops.service.image;
+
+import com.dailycodework.dreamshops.model.Image;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache em memória das imagens mais acessadas, com orçamento em bytes ({@code app.image-cache.max-size-mb}).
+ * O Caffeine usa W-TinyLFU: uma imagem só entra no lugar de outra se for acessada com mais frequência,
+ * então um varrimento de imagens raras não expulsa as imagens de destaque.
+ * Conteúdos maiores que 1/16 do orçamento não são guardados e continuam sendo servidos do disco.
+ * Um conteúdo só é lido para a memória a partir da segunda falta; na primeira ele é servido direto do disco.
+ * Métricas em {@code cache.gets}, {@code cache.evictions} etc. com as tags {@code image.content}, {@code image.metadata} e {@code image.metadata-by-hash}.
+ */
+@Component
+public class ImageCache {
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+    private static final int MAX_METADATA_ENTRIES = 10_000;
+
+    private final Cache<String, byte[]> content;
+    private final Cache<Long, Image> metadata;
+    private final Cache<String, Image> metadataByHash;
+    // Hashes que já faltaram uma vez e ainda não foram lidos para a memória
+    private final Cache<String, Boolean> missedOnce;
+    private final long maxEntryBytes;
+
+    public ImageCache(@Value("${app.image-cache.max-size-mb:64}") long maxSizeMb, MeterRegistry meterRegistry) {
+        long maxBytes = maxSizeMb * BYTES_PER_MB;
+        this.maxEntryBytes = maxBytes / 16;
+        this.content = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String hash, byte[] bytes) -> bytes.length)
+                .recordStats()
+                .build();
+        this.metadata = Caffeine.newBuilder()
+                .maximumSize(MAX_METADATA_ENTRIES)
+                .recordStats()
+                .build();
+        this.metadataByHash = Caffeine.newBuilder()
+                .maximumSize(MAX_METADATA_ENTRIES)
+                .recordStats()
+                .build();
+        this.missedOnce = Caffeine.newBuilder()
+                .maximumSize(MAX_METADATA_ENTRIES)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, content, "image.content");
+        CaffeineCacheMetrics.monitor(meterRegistry, metadata, "image.metadata");
+        CaffeineCacheMetrics.monitor(meterRegistry, metadataByHash, "image.metadata-by-hash");
+    }
+
+    // Ausências não são guardadas: o Caffeine ignora loaders que retornam null
+    public Image image(Long id, Function<Long, Optional<Image>> loader) {
+        return metadata.get(id, key -> loader.apply(key).orElse(null));
+    }
+
+    public Image imageByHash(String hash, Function<String, Optional<Image>> loader) {
+        return metadataByHash.get(hash, key -> loader.apply(key).orElse(null));
+    }
+
+    // O conteúdo é endereçado pelo hash e nunca muda; só sai do cache por despejo ou quando o arquivo é apagado
+    public Resource content(String hash, Supplier<Resource> loader) throws IOException {
+        byte[] cached = content.getIfPresent(hash);
+        if (cached != null) {
+            return new ByteArrayResource(cached);
+        }
+        Resource source = loader.get();
+        if (source.contentLength() > maxEntryBytes || missedOnce.asMap().putIfAbsent(hash, Boolean.TRUE) == null) {
+            return source;
+        }
+        missedOnce.invalidate(hash);
+        byte[] bytes = source.getContentAsByteArray();
+        content.put(hash, bytes);
+        return new ByteArrayResource(bytes);
+    }
+
+    public void evictImage(Long id) {
+        metadata.invalidate(id);
+    }
+
+    public void evictHash(String hash) {
+        metadataByHash.invalidate(hash);
+    }
+
+    public void evictContent(String hash) {
+        metadataByHash.invalidate(hash);
+        missedOnce.invalidate(hash);
+        content.invalidate(hash);
+    }
+}
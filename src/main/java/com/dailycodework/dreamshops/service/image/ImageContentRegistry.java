@@ -0,0 +1,59 @@
+package com.dailycodework.dreamshops.service.image;
+
+import com.dailycodework.dreamshops.repository.ImageContentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+
+/**
+ * Contagem de referências dos arquivos do {@link ImageStorage}: o mesmo conteúdo enviado para vários
+ * produtos é gravado uma vez e o arquivo só é apagado quando a última imagem que o usa sai.
+ * Cada imagem conta uma referência por hash distinto (original e variantes).
+ * <p>
+ * O contador é adquirido depois de gravar o arquivo e antes de inserir a linha que o referencia;
+ * a liberação apaga o arquivo com a linha do contador ainda travada, então um upload concorrente do
+ * mesmo conteúdo espera o commit e, se o arquivo tiver sido apagado, falha em vez de apontar para o vazio.
+ * A liberação roda sempre em transação própria, porque é chamada também depois do commit de quem removeu as imagens.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImageContentRegistry {
+    private final ImageContentRepository imageContentRepository;
+    private final ImageStorage imageStorage;
+    private final ImageCache imageCache;
+
+    @Transactional
+    public void acquire(String hash, long length) {
+        imageContentRepository.acquire(hash, length);
+        if (!imageStorage.exists(hash)) {
+            throw new IllegalStateException("Image content " + hash + " was removed concurrently, please retry the upload");
+        }
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(String hash) {
+        // Sem contador: conteúdo que não é gerenciado aqui, nunca é apagado
+        if (imageContentRepository.release(hash) == 0 || imageContentRepository.deleteUnreferenced(hash) == 0) {
+            return;
+        }
+        imageCache.evictContent(hash);
+        try {
+            imageStorage.delete(hash);
+        } catch (IOException e) {
+            log.warn("Could not delete unreferenced image content {}: {}", hash, e.getMessage());
+        }
+    }
+
+    // Arquivo gravado que não chegou a ser referenciado: passa pelo contador para não apagar
+    // um conteúdo que outra imagem acabou de adquirir
+    @Transactional
+    public void discard(String hash, long length) {
+        imageContentRepository.acquire(hash, length);
+        release(hash);
+    }
+}
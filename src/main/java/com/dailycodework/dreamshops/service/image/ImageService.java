@@ -1,89 +1,335 @@
 package com.dailycodework.dreamshops.service.image;
 
 import java.io.IOException;
-import java.sql.SQLException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
-import javax.sql.rowset.serial.SerialBlob;
-
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.dailycodework.dreamshops.dto.ImageDto;
+import com.dailycodework.dreamshops.exceptions.ImageTooLargeException;
 import com.dailycodework.dreamshops.exceptions.ResourceNotFoundException;
+import com.dailycodework.dreamshops.mapper.ProductMapper;
 import com.dailycodework.dreamshops.model.Image;
 import com.dailycodework.dreamshops.model.Product;
 import com.dailycodework.dreamshops.repository.ImageRepository;
+import com.dailycodework.dreamshops.repository.ImageRepository.ImageFile;
+import com.dailycodework.dreamshops.service.catalog.ProductChangedEvent;
 import com.dailycodework.dreamshops.service.product.IProductService;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ImageService implements IImageService {
 
     private final ImageRepository imageRepository;
     private final IProductService productService;
+    private final ImageStorage imageStorage;
+    private final ImageCache imageCache;
+    private final ImageContentRegistry imageContentRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductMapper productMapper;
+
+    @Value("${api.prefix}")
+    private String apiPrefix;
+
+    @Value("${app.images.max-size:5MB}")
+    private DataSize maxImageSize;
 
     @Override
     public Image getImageById(Long id) {
-        return imageRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("No image found with id: " + id));
+        Image image = imageCache.image(id, imageRepository::findById);
+        if (image == null) {
+            throw new ResourceNotFoundException("No image found with id: " + id);
+        }
+        return image;
+    }
+
+    @Override
+    public Image getImageByContentHash(String contentHash) {
+        Image image = imageCache.imageByHash(contentHash, hash -> imageRepository.findByAnyHash(hash).stream().findFirst());
+        if (image == null) {
+            throw new ResourceNotFoundException("No image found with content: " + contentHash);
+        }
+        return image;
     }
 
     @Override
     public List<ImageDto> saveImages(List<MultipartFile> files, Long productId) {
         Product product = productService.getProductById(productId);
+        files.forEach(file -> checkSize(file.getSize()));
 
-        List<ImageDto> savedImageDto = new ArrayList<>();
-        for (MultipartFile file : files) {
-            try {
-                Image image = new Image();
-                image.setFileName(file.getOriginalFilename());
-                image.setFileType(file.getContentType());
-                image.setImage(new SerialBlob(file.getBytes()));
-                image.setProduct(product);
-
-                Image savedImage = imageRepository.save(image);
-
-                String downloadUrl = "api/v1/images/download/" + savedImage.getId();
-                savedImage.setDownloadUrl(downloadUrl);
+        // 1. Grava os arquivos no armazenamento em paralelo (cada um só toca o próprio stream e arquivo temporário)
+        List<Image> images = storeAll(files);
+        images.forEach(image -> image.setProduct(product));
 
-                savedImage = imageRepository.save(savedImage);
-
-                ImageDto imageDto = new ImageDto();
-                imageDto.setId(savedImage.getId());
-                imageDto.setFileName(savedImage.getFileName());
-                imageDto.setDownloadUrl(savedImage.getDownloadUrl());
-                savedImageDto.add(imageDto);
+        // 2. Um único saveAll: com ids de sequence, o Hibernate agrupa os INSERTs em lote
+        List<Image> savedImages;
+        try {
+            savedImages = imageRepository.saveAll(images);
+        } catch (RuntimeException e) {
+            images.forEach(image -> releaseContent(image.getContentHash()));
+            throw e;
+        }
+        savedImages.forEach(this::publishImageUploaded);
+        eventPublisher.publishEvent(ProductChangedEvent.of(productId));
+        return savedImages.stream().map(productMapper::toImageDto).toList();
+    }
 
-            } catch (IOException | SQLException e) {
-                throw new RuntimeException(e.getMessage());
+    private List<Image> storeAll(List<MultipartFile> files) {
+        List<Future<Image>> pending = new ArrayList<>(files.size());
+        List<Image> images = new ArrayList<>(files.size());
+        RuntimeException failure = null;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (MultipartFile file : files) {
+                pending.add(executor.submit(() -> {
+                    try (InputStream content = file.getInputStream()) {
+                        return newImage(content, file.getOriginalFilename(), file.getContentType());
+                    }
+                }));
+            }
+            for (Future<Image> future : pending) {
+                try {
+                    images.add(future.get());
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause() instanceof RuntimeException runtime
+                                ? runtime : new RuntimeException(e.getCause().getMessage());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failure = new RuntimeException("Upload interrupted");
+                }
             }
         }
-        return savedImageDto;
+        if (failure != null) {
+            // Nenhuma linha foi gravada: devolve as referências já adquiridas
+            images.forEach(image -> releaseContent(image.getContentHash()));
+            throw failure;
+        }
+        return images;
     }
 
     @Override
-    public Image updateImage(MultipartFile file, Long imageId) {
-       Image image = getImageById(imageId);
+    public ImageDto saveImage(InputStream content, String fileName, String contentType, Long productId) {
+        Product product = productService.getProductById(productId);
         try {
+            Image image = newImage(content, fileName, contentType);
+            image.setProduct(product);
+            Image savedImage = save(image);
+            publishImageUploaded(savedImage);
+            eventPublisher.publishEvent(ProductChangedEvent.of(productId));
+            return productMapper.toImageDto(savedImage);
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+    private Image newImage(InputStream content, String fileName, String contentType) throws IOException {
+        Image image = new Image();
+        image.setFileName(fileName);
+        image.setFileType(contentType);
+        storeContent(image, content);
+        return image;
+    }
+
+    @Override
+    public Image updateImage(MultipartFile file, Long imageId) {
+        // Lê do banco, não do cache: a instância em cache é compartilhada entre requisições
+        Image image = imageRepository.findById(imageId)
+                .orElseThrow(() -> new ResourceNotFoundException("No image found with id: " + imageId));
+        checkSize(file.getSize());
+        try (InputStream content = file.getInputStream()) {
+            List<String> previousHashes = contentHashes(image);
             image.setFileName(file.getOriginalFilename());
             image.setFileType(file.getContentType());
-            image.setImage(new SerialBlob(file.getBytes()));
-            return imageRepository.save(image);
-        } catch (IOException | SQLException e) {
+            storeContent(image, content);
+            // As variantes antigas deixam de valer; as novas são geradas em segundo plano
+            image.setThumbnailHash(null);
+            image.setMediumHash(null);
+            image.setLargeHash(null);
+            Image updatedImage = save(image);
+            imageCache.evictImage(imageId);
+            previousHashes.forEach(imageCache::evictHash);
+            previousHashes.forEach(this::releaseContent);
+            publishImageUploaded(updatedImage);
+            publishProductChanged(updatedImage);
+            return updatedImage;
+        } catch (IOException e) {
             throw new RuntimeException(e.getMessage());
         }
        
     }
 
+    // Se o INSERT/UPDATE falhar, devolve a referência adquirida em storeContent
+    private Image save(Image image) {
+        try {
+            return imageRepository.save(image);
+        } catch (RuntimeException e) {
+            releaseContent(image.getContentHash());
+            throw e;
+        }
+    }
+
+    @Override
+    public Resource getImageContent(Image image) {
+        if (image.getContentHash() == null) {
+            throw new ResourceNotFoundException("No content found for image with id: " + image.getId());
+        }
+        return cachedContent(image.getContentHash(), "No content found for image with id: " + image.getId());
+    }
+
+    @Override
+    public Resource getContent(String contentHash) {
+        return cachedContent(contentHash, "No content found: " + contentHash);
+    }
+
+    private Resource cachedContent(String contentHash, String notFoundMessage) {
+        try {
+            return imageCache.content(contentHash, () -> {
+                if (!imageStorage.exists(contentHash)) {
+                    throw new ResourceNotFoundException(notFoundMessage);
+                }
+                return imageStorage.load(contentHash);
+            });
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
     @Override
     public void deleteImageById(Long id) {
-        imageRepository.findById(id).ifPresentOrElse(imageRepository :: delete, () -> {
+        imageRepository.findById(id).ifPresentOrElse(image -> {
+            imageRepository.delete(image);
+            releaseImage(image);
+            publishProductChanged(image);
+        }, () -> {
             throw new ResourceNotFoundException("No image found with id: " + id);
         });
     }
-    
+
+    // As linhas de image saem em cascata com o produto; aqui só devolve as referências aos arquivos,
+    // depois do commit, para um rollback da exclusão não deixar imagens apontando para arquivos apagados
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImagesDeleted(ImagesDeletedEvent event) {
+        event.getImages().forEach(this::releaseImage);
+    }
+
+    private void releaseImage(Image image) {
+        imageCache.evictImage(image.getId());
+        contentHashes(image).forEach(imageCache::evictHash);
+        contentHashes(image).forEach(this::releaseContent);
+    }
+
+    private void storeContent(Image image, InputStream content) throws IOException {
+        ImageStorage.StoredContent stored = imageStorage.store(content, maxImageSize.toBytes());
+        // Conteúdo repetido reaproveita o arquivo existente e só incrementa o contador
+        imageContentRegistry.acquire(stored.hash(), stored.length());
+        image.setContentHash(stored.hash());
+        image.setContentLength(stored.length());
+        image.setUploadedAt(Instant.now());
+        // URL imutável: novo conteúdo gera nova URL, então o cache pode guardá-la para sempre
+        image.setDownloadUrl(apiPrefix + "/images/content/" + stored.hash());
+    }
+
+    // Rejeita antes de ler quando o tamanho já é conhecido; o limite também é aplicado durante o stream
+    private void checkSize(long size) {
+        if (size > maxImageSize.toBytes()) {
+            throw new ImageTooLargeException("Image exceeds the maximum size of " + maxImageSize.toBytes() + " bytes");
+        }
+    }
+
+    private static List<String> contentHashes(Image image) {
+        return Stream.of(image.getContentHash(), image.getThumbnailHash(), image.getMediumHash(), image.getLargeHash())
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+    }
+
+    @Override
+    public List<ImageFile> getProductImageFiles(Long productId) {
+        List<ImageFile> files = imageRepository.findFilesByProductId(productId);
+        if (files.isEmpty()) {
+            throw new ResourceNotFoundException("No images found for product with id: " + productId);
+        }
+        return files;
+    }
+
+    @Override
+    public List<ImageFile> getCategoryImageFiles(String category) {
+        List<ImageFile> files = imageRepository.findFilesByCategoryName(category);
+        if (files.isEmpty()) {
+            throw new ResourceNotFoundException("No images found for category: " + category);
+        }
+        return files;
+    }
+
+    // Um arquivo por vez, copiado do disco direto para a resposta: a memória não cresce com o tamanho do ZIP.
+    // Não passa pelo ImageCache para a exportação não expulsar as imagens mais acessadas
+    @Override
+    public void writeZip(List<ImageFile> files, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        // JPEG/PNG/WebP já são comprimidos; recomprimir só gasta CPU
+        zip.setLevel(Deflater.NO_COMPRESSION);
+        for (ImageFile file : files) {
+            Resource resource = imageStorage.load(file.contentHash());
+            if (!resource.exists()) {
+                log.warn("Skipping image {} in export: content {} not found", file.id(), file.contentHash());
+                continue;
+            }
+            zip.putNextEntry(new ZipEntry(zipEntryName(file)));
+            try (InputStream content = resource.getInputStream()) {
+                content.transferTo(zip);
+            }
+            zip.closeEntry();
+        }
+        zip.finish();
+    }
+
+    // O id deixa o nome único dentro do arquivo; separadores de diretório são trocados para evitar zip slip
+    private static String zipEntryName(ImageFile file) {
+        String fileName = file.fileName() != null ? file.fileName().replaceAll("[/\\\\]", "_") : "image";
+        return file.id() + "-" + fileName;
+    }
+
+    // O mesmo conteúdo pode ser compartilhado por várias imagens; só apaga o arquivo quando ninguém mais o usa
+    private void releaseContent(String contentHash) {
+        if (contentHash != null) {
+            imageContentRegistry.release(contentHash);
+        }
+    }
+
+    private void publishImageUploaded(Image image) {
+        Long productId = image.getProduct() != null ? image.getProduct().getId() : null;
+        eventPublisher.publishEvent(new ImageUploadedEvent(image.getId(), productId, image.getContentHash(), image.getFileType()));
+    }
+
+    private void publishProductChanged(Image image) {
+        if (image.getProduct() != null) {
+            eventPublisher.publishEvent(ProductChangedEvent.of(image.getProduct().getId()));
+        }
+    }
+
     
 }
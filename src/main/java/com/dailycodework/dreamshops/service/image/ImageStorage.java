@@ -0,0 +1,30 @@
+package com.dailycodework.dreamshops.service.image;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Armazenamento dos bytes das imagens, endereçado pelo SHA-256 do conteúdo.
+ * A entidade {@link com.dailycodework.dreamshops.model.Image} guarda apenas o hash e os metadados.
+ */
+public interface ImageStorage {
+
+    record StoredContent(String hash, long length) {
+    }
+
+    // Consome o stream em blocos de tamanho fixo, sem carregá-lo inteiro em memória; conteúdo repetido
+    // é gravado uma única vez. Lança ImageTooLargeException assim que o limite é ultrapassado.
+    StoredContent store(InputStream content, long maxBytes) throws IOException;
+
+    default StoredContent store(InputStream content) throws IOException {
+        return store(content, Long.MAX_VALUE);
+    }
+
+    Resource load(String hash);
+
+    boolean exists(String hash);
+
+    void delete(String hash) throws IOException;
+}
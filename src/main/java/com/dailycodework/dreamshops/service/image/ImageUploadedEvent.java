@@ -0,0 +1,14 @@
+package com.dailycodework.dreamshops.service.image;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Publicado quando o conteúdo original de uma imagem é gravado; dispara a geração das variantes
+@Getter
+@RequiredArgsConstructor
+public class ImageUploadedEvent {
+    private final Long imageId;
+    private final Long productId;
+    private final String contentHash;
+    private final String fileType;
+}
@@ -0,0 +1,227 @@
+package com.dailycodework.dreamshops.service.image;
+
+import com.dailycodework.dreamshops.enums.ImageVariant;
+import com.dailycodework.dreamshops.repository.ImageRepository;
+import com.dailycodework.dreamshops.service.catalog.ProductChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gera as variantes redimensionadas ({@link ImageVariant}) depois que o original é gravado.
+ * Cada upload vira uma tarefa numa virtual thread; o semáforo limita quantas imagens são
+ * decodificadas ao mesmo tempo, já que cada uma ocupa o raster inteiro em memória.
+ * As variantes são gravadas no {@link ImageStorage} no mesmo formato do original.
+ */
+@Slf4j
+@Component
+public class ImageVariantGenerator {
+
+    private final ImageStorage imageStorage;
+    private final ImageRepository imageRepository;
+    private final ImageCache imageCache;
+    private final ImageContentRegistry imageContentRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore decodePermits = new Semaphore(Math.max(1, Runtime.getRuntime().availableProcessors()));
+
+    public ImageVariantGenerator(ImageStorage imageStorage,
+                                 ImageRepository imageRepository,
+                                 ImageCache imageCache,
+                                 ImageContentRegistry imageContentRegistry,
+                                 ApplicationEventPublisher eventPublisher) {
+        this.imageStorage = imageStorage;
+        this.imageRepository = imageRepository;
+        this.imageCache = imageCache;
+        this.imageContentRegistry = imageContentRegistry;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImageUploaded(ImageUploadedEvent event) {
+        executor.submit(() -> generate(event));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private void generate(ImageUploadedEvent event) {
+        Map<ImageVariant, String> hashes;
+        // Arquivos novos gravados para as variantes (hash -> tamanho); os que reaproveitam o original ficam fora
+        Map<String, Long> written = new HashMap<>();
+        try {
+            decodePermits.acquire();
+            try {
+                hashes = createVariants(event.getContentHash(), event.getFileType(), written);
+            } finally {
+                decodePermits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not generate variants for image {}: {}", event.getImageId(), e.getMessage());
+            written.forEach(imageContentRegistry::discard);
+            return;
+        }
+        if (hashes.isEmpty()) {
+            return;
+        }
+
+        // As referências são adquiridas antes de a imagem passar a apontar para as variantes
+        List<String> acquired = new ArrayList<>();
+        try {
+            written.forEach((hash, length) -> {
+                imageContentRegistry.acquire(hash, length);
+                acquired.add(hash);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not register variants for image {}: {}", event.getImageId(), e.getMessage());
+            acquired.forEach(imageContentRegistry::release);
+            written.forEach((hash, length) -> {
+                if (!acquired.contains(hash)) {
+                    imageContentRegistry.discard(hash, length);
+                }
+            });
+            return;
+        }
+
+        // As referências só ficam com a imagem se ela passou a apontar para as variantes
+        boolean linked = false;
+        try {
+            // 0 linhas: a imagem foi apagada ou substituída enquanto as variantes eram geradas
+            linked = imageRepository.updateVariants(event.getImageId(), event.getContentHash(),
+                    hashes.get(ImageVariant.THUMBNAIL), hashes.get(ImageVariant.MEDIUM), hashes.get(ImageVariant.LARGE)) > 0;
+        } catch (RuntimeException e) {
+            log.warn("Could not link variants to image {}: {}", event.getImageId(), e.getMessage());
+        }
+        if (!linked) {
+            acquired.forEach(imageContentRegistry::release);
+            return;
+        }
+        imageCache.evictImage(event.getImageId());
+        if (event.getProductId() != null) {
+            eventPublisher.publishEvent(ProductChangedEvent.of(event.getProductId()));
+        }
+    }
+
+    private Map<ImageVariant, String> createVariants(String contentHash, String fileType,
+                                                     Map<String, Long> written) throws IOException {
+        Map<ImageVariant, String> hashes = new EnumMap<>(ImageVariant.class);
+        ImageWriter writer = writerFor(fileType);
+        if (writer == null) {
+            // Formato sem writer no ImageIO (ex.: webp): os clientes continuam usando o original
+            return hashes;
+        }
+        try {
+            BufferedImage original = read(contentHash);
+            if (original == null) {
+                return hashes;
+            }
+            int longestSide = Math.max(original.getWidth(), original.getHeight());
+            for (ImageVariant variant : ImageVariant.values()) {
+                if (longestSide <= variant.getMaxSize()) {
+                    // Original já cabe no tamanho da variante: reaproveita o mesmo arquivo
+                    hashes.put(variant, contentHash);
+                    continue;
+                }
+                BufferedImage resized = resize(original, variant.getMaxSize(), isJpeg(fileType));
+                ImageStorage.StoredContent stored = write(resized, writer);
+                written.put(stored.hash(), stored.length());
+                hashes.put(variant, stored.hash());
+            }
+            return hashes;
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    // Decodifica com subamostragem quando o original é muito maior que a maior variante
+    private BufferedImage read(String contentHash) throws IOException {
+        try (InputStream content = imageStorage.load(contentHash).getInputStream();
+             ImageInputStream input = ImageIO.createImageInputStream(content)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longestSide / (2 * ImageVariant.LARGE.getMaxSize()));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage source, int maxSize, boolean opaque) {
+        double scale = (double) maxSize / Math.max(source.getWidth(), source.getHeight());
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        BufferedImage target = new BufferedImage(width, height,
+                opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private ImageStorage.StoredContent write(BufferedImage image, ImageWriter writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(output);
+            writer.write(image);
+        }
+        return imageStorage.store(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    private static ImageWriter writerFor(String fileType) {
+        if (fileType == null) {
+            return null;
+        }
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByMIMEType(fileType);
+        return writers.hasNext() ? writers.next() : null;
+    }
+
+    private static boolean isJpeg(String fileType) {
+        return "image/jpeg".equalsIgnoreCase(fileType) || "image/jpg".equalsIgnoreCase(fileType);
+    }
+}
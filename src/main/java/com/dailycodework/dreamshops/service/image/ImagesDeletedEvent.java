@@ -0,0 +1,14 @@
+package com.dailycodework.dreamshops.service.image;
+
+import com.dailycodework.dreamshops.model.Image;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+// Publicado quando linhas de image são removidas fora do ImageService (ex.: cascata ao apagar o produto)
+@Getter
+@RequiredArgsConstructor
+public class ImagesDeletedEvent {
+    private final List<Image> images;
+}
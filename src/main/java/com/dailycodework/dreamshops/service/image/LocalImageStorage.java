@@ -0,0 +1,110 @@
+package com.dailycodework.dreamshops.service.image;
+
+import com.dailycodework.dreamshops.exceptions.ImageTooLargeException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Diretório local endereçado por conteúdo: {@code <root>/ab/cd/abcd...} onde o nome do arquivo
+ * é o SHA-256 dos bytes. O arquivo é escrito em {@code <root>/tmp} enquanto o hash é calculado
+ * e só então movido para o destino, de modo que leitores nunca veem um arquivo parcial; uploads
+ * acima do limite são interrompidos e o arquivo temporário é descartado.
+ */
+@Component
+public class LocalImageStorage implements ImageStorage {
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    private final Path root;
+    private final Path tmp;
+
+    public LocalImageStorage(@Value("${app.images.storage.root:./data/images}") String root) throws IOException {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.tmp = this.root.resolve("tmp");
+        Files.createDirectories(this.tmp);
+    }
+
+    @Override
+    public StoredContent store(InputStream content, long maxBytes) throws IOException {
+        Path tempFile = Files.createTempFile(tmp, "upload-", ".part");
+        try {
+            // Um único buffer por upload: o hash é calculado sobre cada bloco antes de gravá-lo
+            MessageDigest digest = sha256();
+            byte[] chunk = new byte[CHUNK_SIZE];
+            long length = 0;
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                int read;
+                while ((read = content.read(chunk)) != -1) {
+                    length += read;
+                    if (length > maxBytes) {
+                        throw new ImageTooLargeException("Image exceeds the maximum size of " + maxBytes + " bytes");
+                    }
+                    digest.update(chunk, 0, read);
+                    out.write(chunk, 0, read);
+                }
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(hash);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                move(tempFile, target);
+            }
+            return new StoredContent(hash, length);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @Override
+    public Resource load(String hash) {
+        return new FileSystemResource(pathOf(hash));
+    }
+
+    @Override
+    public boolean exists(String hash) {
+        return Files.exists(pathOf(hash));
+    }
+
+    @Override
+    public void delete(String hash) throws IOException {
+        Files.deleteIfExists(pathOf(hash));
+    }
+
+    private Path pathOf(String hash) {
+        if (hash == null || !hash.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("Invalid content hash: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target);
+        } catch (FileAlreadyExistsException e) {
+            // outro upload com o mesmo conteúdo chegou primeiro
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -3,43 +3,75 @@ package com.dailycodework.dreamshops.service.order;
 import com.dailycodework.dreamshops.dto.OrderDto;
 import com.dailycodework.dreamshops.enums.OrderStatus;
 import com.dailycodework.dreamshops.exceptions.ResourceNotFoundException;
+import com.dailycodework.dreamshops.mapper.OrderMapper;
 import com.dailycodework.dreamshops.model.Cart;
+import com.dailycodework.dreamshops.model.Money;
 import com.dailycodework.dreamshops.model.Order;
 import com.dailycodework.dreamshops.model.OrderItem;
 import com.dailycodework.dreamshops.model.Product;
 import com.dailycodework.dreamshops.repository.OrderRepository;
 import com.dailycodework.dreamshops.repository.ProductRepository;
+import com.dailycodework.dreamshops.service.cart.CartLocks;
 import com.dailycodework.dreamshops.service.cart.CartService;
-import jakarta.transaction.Transactional;
-import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import com.dailycodework.dreamshops.service.cart.CartWriteBehindStore;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.List;
 
 @Service
-@RequiredArgsConstructor
 public class OrderService implements IOrderService {
 
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
     private final CartService cartService;
-    private final ModelMapper modelMapper;
+    private final OrderMapper orderMapper;
+    private final CartLocks cartLocks;
+    private final CartWriteBehindStore cartWriteBehindStore;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
+    public OrderService(OrderRepository orderRepository,
+                        ProductRepository productRepository,
+                        CartService cartService,
+                        OrderMapper orderMapper,
+                        CartLocks cartLocks,
+                        CartWriteBehindStore cartWriteBehindStore,
+                        PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.productRepository = productRepository;
+        this.cartService = cartService;
+        this.orderMapper = orderMapper;
+        this.cartLocks = cartLocks;
+        this.cartWriteBehindStore = cartWriteBehindStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // O carrinho é relido sob o seu lock, dentro da transação do pedido: nenhuma adição concorrente
+    // entra entre a cópia dos itens para o pedido e a remoção do carrinho
     @Override
     public Order placeOrder(Long userId) {
-        Cart cart   = cartService.getCartByUserId(userId);
-        Order order = createOrder(cart);
-        List<OrderItem> orderItemList = createOrderItems(order, cart);
-        order.setOrderItems(new HashSet<>(orderItemList));
-        order.setTotalAmount(calculateTotalAmount(orderItemList));
-        Order savedOrder = orderRepository.save(order);
-        cartService.clearCart(cart.getId());
-        return savedOrder;
+        Cart userCart = cartService.getCartByUserId(userId);
+        if (userCart == null) {
+            throw new ResourceNotFoundException("Cart not found for user with id: " + userId);
+        }
+        Long cartId = userCart.getId();
+        return cartLocks.withLock(cartId, () -> {
+            // Itens ainda só em memória vão para o banco antes da transação do pedido, numa conexão própria
+            cartWriteBehindStore.flushAndEvict(cartId);
+            return transactionTemplate.execute(status -> {
+                Cart cart   = cartService.getCartForUpdate(cartId);
+                Order order = createOrder(cart);
+                List<OrderItem> orderItemList = createOrderItems(order, cart);
+                order.setOrderItems(new HashSet<>(orderItemList));
+                order.setTotalAmount(calculateTotalAmount(orderItemList));
+                Order savedOrder = orderRepository.save(order);
+                cartService.clearCart(cartId);
+                return savedOrder;
+            });
+        });
     }
 
     private Order createOrder(Cart cart) {
@@ -64,12 +96,13 @@ public class OrderService implements IOrderService {
 
     }
 
-    private BigDecimal calculateTotalAmount(List<OrderItem> orderItemList){
-        return orderItemList
-                .stream()
-                .map(item -> item.getPrice()
-                        .multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    // Soma em centavos: nenhum objeto por item, só o Money do resultado
+    Money calculateTotalAmount(List<OrderItem> orderItemList){
+        long cents = 0;
+        for (OrderItem item : orderItemList) {
+            cents = Math.addExact(cents, Math.multiplyExact(item.getPrice().cents(), item.getQuantity()));
+        }
+        return Money.ofCents(cents);
     }
 
     @Override
@@ -87,6 +120,6 @@ public class OrderService implements IOrderService {
 
     @Override
     public OrderDto convertToDto(Order order) {
-        return modelMapper.map(order, OrderDto.class);
+        return orderMapper.toDto(order);
     }
 }
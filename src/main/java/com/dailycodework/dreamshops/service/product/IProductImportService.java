@@ -0,0 +1,11 @@
+package com.dailycodework.dreamshops.service.product;
+
+import com.dailycodework.dreamshops.dto.ProductImportResultDto;
+import com.dailycodework.dreamshops.enums.ImportFormat;
+
+import java.io.InputStream;
+
+public interface IProductImportService {
+
+    ProductImportResultDto importProducts(InputStream input, ImportFormat format);
+}
@@ -1,16 +1,29 @@
 package com.dailycodework.dreamshops.service.product;
 
+import com.dailycodework.dreamshops.dto.ProductBulkUpdateResultDto;
 import com.dailycodework.dreamshops.dto.ProductDto;
+import com.dailycodework.dreamshops.dto.ProductFacetsDto;
+import com.dailycodework.dreamshops.dto.ProductSuggestionDto;
+import com.dailycodework.dreamshops.dto.ProductPageDto;
 import com.dailycodework.dreamshops.model.Product;
 import com.dailycodework.dreamshops.request.AddProductRequest;
+import com.dailycodework.dreamshops.request.ProductBulkUpdateRequest;
 import com.dailycodework.dreamshops.request.ProductUpdateRequest;
 
 import java.util.List;
 
 
+/**
+ * As leituras que devolvem {@link ProductDto} são servidas pelo catálogo em memória quando ele está carregado.
+ * O catálogo é atualizado em segundo plano depois do commit das escritas: logo após {@code addProduct},
+ * {@code updateProduct}, {@code deleteProductById} ou {@code bulkUpdateProducts}, essas leituras ainda podem
+ * devolver a versão anterior, inclusive para quem fez a escrita. {@link #getProductById(Long)} lê sempre o banco.
+ */
 public interface IProductService {
         
         Product getProductById(Long id);
+
+        ProductDto getProductDtoById(Long id);
     
         Product addProduct(AddProductRequest request);
     
@@ -18,20 +31,28 @@ public interface IProductService {
 
         Product updateProduct(ProductUpdateRequest product, Long id);
 
-        List<Product> getAllProducts();
+        ProductBulkUpdateResultDto bulkUpdateProducts(List<ProductBulkUpdateRequest> updates);
+
+        ProductPageDto getAllProducts(Long after, int limit);
 
-        List<Product> getProductsByCategory(String category);
+        ProductPageDto getProductsByCategory(String category, Long after, int limit);
 
-        List<Product> getProductsByBrand(String brand);
+        ProductPageDto getProductsByBrand(String brand, Long after, int limit);
 
-        List<Product> getProductsByCategoryAndBrand(String category, String brand);
+        ProductPageDto getProductsByCategoryAndBrand(String category, String brand, Long after, int limit);
 
-        List<Product> getProductsByName(String name);
+        ProductPageDto getProductsByName(String name, Long after, int limit);
 
-        List<Product> getProductsByBrandAndName(String brand, String name);
+        ProductPageDto getProductsByBrandAndName(String brand, String name, Long after, int limit);
 
         Long countProductsByBrandAndName(String brand, String name);
 
+        List<ProductDto> searchProducts(String query, int limit);
+
+        ProductFacetsDto getProductFacets(String category, String brand, int limit);
+
+        List<ProductSuggestionDto> suggestProducts(String prefix, int limit);
+
         ProductDto convertToDto(Product product);
 
         List<ProductDto> getConvertedProducts(List<Product> products);
@@ -0,0 +1,278 @@
+package com.dailycodework.dreamshops.service.product;
+
+import com.dailycodework.dreamshops.dto.ProductImportResultDto;
+import com.dailycodework.dreamshops.enums.ImportFormat;
+import com.dailycodework.dreamshops.model.Category;
+import com.dailycodework.dreamshops.repository.CategoryRepository;
+import com.dailycodework.dreamshops.repository.ProductRepository;
+import com.dailycodework.dreamshops.request.AddProductRequest;
+import com.dailycodework.dreamshops.service.catalog.CatalogReloadEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class ProductImportService implements IProductImportService {
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final String INSERT_PRODUCT =
+            "INSERT INTO product (name, brand, price, inventory, description, category_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ProductImportService(ProductRepository productRepository,
+                                CategoryRepository categoryRepository,
+                                JdbcTemplate jdbcTemplate,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    private interface RowParser {
+        AddProductRequest parse(String line) throws IOException;
+    }
+
+    private record ImportRow(long number, AddProductRequest request) {
+    }
+
+    @Override
+    public ProductImportResultDto importProducts(InputStream input, ImportFormat format) {
+        // 1. Carrega as categorias uma única vez; as novas são criadas sob demanda
+        // 2. Lê a entrada linha a linha, validando cada produto
+        // 3. A cada BATCH_SIZE linhas descarta duplicados e insere o lote via JDBC batch
+        // 4. No fim, pede uma única recarga do catálogo em memória
+        Map<String, Long> categoryIds = new HashMap<>();
+        categoryRepository.findAll().forEach(category -> categoryIds.put(category.getName(), category.getId()));
+        ProductImportResultDto result = new ProductImportResultDto();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            long rowNumber = 0;
+            RowParser parser;
+            if (format == ImportFormat.CSV) {
+                parser = csvParser(reader.readLine());
+                rowNumber++;
+            } else {
+                parser = line -> objectMapper.readValue(line, AddProductRequest.class);
+            }
+
+            List<ImportRow> batch = new ArrayList<>(BATCH_SIZE);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                rowNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    AddProductRequest request = parser.parse(line);
+                    validate(request);
+                    batch.add(new ImportRow(rowNumber, request));
+                } catch (IOException | IllegalArgumentException e) {
+                    result.setFailed(result.getFailed() + 1);
+                    reportError(result, rowNumber, e.getMessage());
+                }
+                if (batch.size() == BATCH_SIZE) {
+                    insertBatch(batch, categoryIds, result);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                insertBatch(batch, categoryIds, result);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (result.getImported() > 0) {
+                eventPublisher.publishEvent(new CatalogReloadEvent());
+            }
+        }
+        return result;
+    }
+
+    private void insertBatch(List<ImportRow> batch, Map<String, Long> categoryIds, ProductImportResultDto result) {
+        Set<String> names = batch.stream().map(row -> row.request().getName()).collect(Collectors.toSet());
+        Set<String> seen = productRepository.findByNameIn(names).stream()
+                .map(product -> key(product.getName(), product.getBrand()))
+                .collect(Collectors.toCollection(HashSet::new));
+
+        List<ImportRow> rows = new ArrayList<>(batch.size());
+        for (ImportRow row : batch) {
+            AddProductRequest request = row.request();
+            if (!seen.add(key(request.getName(), request.getBrand()))) {
+                result.setSkipped(result.getSkipped() + 1);
+                reportError(result, row.number(), request.getBrand() + " " + request.getName() + " already exists");
+                continue;
+            }
+            rows.add(row);
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        try {
+            insertRows(rows, categoryIds);
+            result.setImported(result.getImported() + rows.size());
+        } catch (DataAccessException e) {
+            // O lote inteiro foi desfeito; refaz linha a linha para reportar só as linhas com problema
+            for (ImportRow row : rows) {
+                try {
+                    insertRows(List.of(row), categoryIds);
+                    result.setImported(result.getImported() + 1);
+                } catch (DataAccessException rowError) {
+                    result.setFailed(result.getFailed() + 1);
+                    reportError(result, row.number(), "Insert failed: " + rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private void insertRows(List<ImportRow> rows, Map<String, Long> categoryIds) {
+        // Categorias novas são criadas na mesma transação dos produtos e só entram no cache após o commit
+        Map<String, Long> created = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (ImportRow row : rows) {
+                String category = row.request().getCategory().getName();
+                if (!categoryIds.containsKey(category) && !created.containsKey(category)) {
+                    created.put(category, categoryRepository.save(new Category(category)).getId());
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_PRODUCT, rows, rows.size(), (ps, row) -> {
+                AddProductRequest request = row.request();
+                String category = request.getCategory().getName();
+                ps.setString(1, request.getName());
+                ps.setString(2, request.getBrand());
+                ps.setBigDecimal(3, request.getPrice());
+                ps.setInt(4, request.getInventory());
+                ps.setString(5, request.getDescription());
+                ps.setLong(6, categoryIds.containsKey(category) ? categoryIds.get(category) : created.get(category));
+            });
+        });
+        categoryIds.putAll(created);
+    }
+
+    private RowParser csvParser(String header) {
+        if (header == null) {
+            throw new IllegalArgumentException("CSV header is missing");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> headerFields = parseCsvLine(header);
+        for (int i = 0; i < headerFields.size(); i++) {
+            columns.put(headerFields.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("name", "brand", "price", "inventory", "category")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header must contain the column: " + required);
+            }
+        }
+        return line -> {
+            List<String> fields = parseCsvLine(line);
+            AddProductRequest request = new AddProductRequest();
+            request.setName(field(fields, columns, "name"));
+            request.setBrand(field(fields, columns, "brand"));
+            String price = field(fields, columns, "price");
+            request.setPrice(price == null ? null : new BigDecimal(price));
+            String inventory = field(fields, columns, "inventory");
+            request.setInventory(inventory == null ? 0 : Integer.parseInt(inventory));
+            request.setDescription(field(fields, columns, "description"));
+            String category = field(fields, columns, "category");
+            request.setCategory(category == null ? null : new Category(category));
+            return request;
+        };
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // Campos separados por vírgula, com aspas duplas opcionais ("" representa uma aspa dentro do campo)
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static void validate(AddProductRequest request) {
+        if (request.getName() == null || request.getName().isBlank()) {
+            throw new IllegalArgumentException("Name is required");
+        }
+        if (request.getBrand() == null || request.getBrand().isBlank()) {
+            throw new IllegalArgumentException("Brand is required");
+        }
+        if (request.getCategory() == null || request.getCategory().getName() == null) {
+            throw new IllegalArgumentException("Category is required");
+        }
+        if (request.getPrice() != null && request.getPrice().compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("Price cannot be negative");
+        }
+        if (request.getInventory() < 0) {
+            throw new IllegalArgumentException("Inventory cannot be negative");
+        }
+    }
+
+    private static void reportError(ProductImportResultDto result, long row, String message) {
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new ProductImportResultDto.RowError(row, message));
+        }
+    }
+
+    private static String key(String name, String brand) {
+        return name + '\u0000' + brand;
+    }
+}
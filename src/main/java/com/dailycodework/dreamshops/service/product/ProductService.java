@@ -1,26 +1,47 @@
 package com.dailycodework.dreamshops.service.product;
 
 import com.dailycodework.dreamshops.dto.ImageDto;
+import com.dailycodework.dreamshops.dto.ProductBulkUpdateResultDto;
 import com.dailycodework.dreamshops.dto.ProductDto;
+import com.dailycodework.dreamshops.dto.ProductFacetsDto;
+import com.dailycodework.dreamshops.dto.ProductPageDto;
+import com.dailycodework.dreamshops.dto.ProductSuggestionDto;
 import com.dailycodework.dreamshops.exceptions.AlreadyExistsException;
 import com.dailycodework.dreamshops.exceptions.ProductNotFoundException;
+import com.dailycodework.dreamshops.mapper.ProductMapper;
 import com.dailycodework.dreamshops.model.Category;
 import com.dailycodework.dreamshops.model.Image;
 import com.dailycodework.dreamshops.model.Product;
 import com.dailycodework.dreamshops.repository.CategoryRepository;
 import com.dailycodework.dreamshops.repository.ImageRepository;
+import com.dailycodework.dreamshops.repository.ImageRepository.ImageSummary;
 import com.dailycodework.dreamshops.repository.ProductRepository;
+import com.dailycodework.dreamshops.service.catalog.CatalogReadModel;
+import com.dailycodework.dreamshops.service.catalog.ProductChangedEvent;
+import com.dailycodework.dreamshops.service.catalog.ProductFacetIndex;
+import com.dailycodework.dreamshops.service.catalog.ProductSearchIndex;
+import com.dailycodework.dreamshops.service.catalog.ProductSuggestIndex;
+import com.dailycodework.dreamshops.service.image.ImagesDeletedEvent;
 
 import java.math.BigDecimal;
 import com.dailycodework.dreamshops.request.AddProductRequest;
+import com.dailycodework.dreamshops.request.ProductBulkUpdateRequest;
 import com.dailycodework.dreamshops.request.ProductUpdateRequest;
 
 import lombok.RequiredArgsConstructor;
 
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,16 +49,35 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class ProductService implements IProductService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int BULK_UPDATE_BATCH_SIZE = 1000;
+    private static final String BULK_UPDATE_SQL =
+            "UPDATE product SET price = COALESCE(?, price), inventory = COALESCE(?, inventory) WHERE id = ?";
+
     private final ProductRepository productRepository;
     private final CategoryRepository  categoryRepository;
     private final ImageRepository imageRepository;
-    private final ModelMapper modelMapper;
+    private final ProductMapper productMapper;
+    private final CatalogReadModel catalogReadModel;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductFacetIndex productFacetIndex;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Product getProductById(Long id) {
         return productRepository.findById(id).orElseThrow(() -> new ProductNotFoundException("Product not found!"));
     }
 
+    @Override
+    public ProductDto getProductDtoById(Long id) {
+        return catalogReadModel.snapshot()
+                .map(catalog -> catalog.findById(id)
+                        .orElseThrow(() -> new ProductNotFoundException("Product not found!")))
+                .orElseGet(() -> convertToDto(getProductById(id)));
+    }
+
     @Override
     public Product addProduct(AddProductRequest request) {
         // check if the category is found in the DB
@@ -64,7 +104,9 @@ public class ProductService implements IProductService {
                     return categoryRepository.save(newCategory);
                 });
         request.setCategory(category);
-        return productRepository.save(createProduct(request, category));
+        Product product = productRepository.save(createProduct(request, category));
+        eventPublisher.publishEvent(ProductChangedEvent.of(product.getId()));
+        return product;
     }
 
     private boolean productExists(String name , String brand) {
@@ -89,12 +131,19 @@ public class ProductService implements IProductService {
             .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
             
         try {
+            // As imagens saem em cascata; guarda-as para liberar os arquivos depois
+            List<Image> images = imageRepository.findByProductId(id);
+
             // Primeiro remove a referência à categoria
             product.setCategory(null);
             productRepository.save(product);
             
             // Depois deleta o produto
             productRepository.delete(product);
+            if (!images.isEmpty()) {
+                eventPublisher.publishEvent(new ImagesDeletedEvent(images));
+            }
+            eventPublisher.publishEvent(ProductChangedEvent.of(id));
         } catch (Exception e) {
             throw new RuntimeException("Error deleting product: " + e.getMessage(), e);
         }
@@ -102,10 +151,59 @@ public class ProductService implements IProductService {
 
     @Override
     public Product updateProduct(ProductUpdateRequest request, Long id) {
-        return productRepository.findById(id)
+        Product product = productRepository.findById(id)
                 .map(existingProduct -> updateExistingProduct(existingProduct, request))
                 .map(productRepository::save)
                 .orElseThrow(() -> new ProductNotFoundException("Product not found!"));
+        eventPublisher.publishEvent(ProductChangedEvent.of(id));
+        return product;
+    }
+
+    @Override
+    @Transactional
+    public ProductBulkUpdateResultDto bulkUpdateProducts(List<ProductBulkUpdateRequest> updates) {
+        // Valida tudo antes de escrever: um valor inválido rejeita a requisição inteira
+        List<ProductBulkUpdateRequest> changes = new ArrayList<>(updates.size());
+        for (ProductBulkUpdateRequest update : updates) {
+            if (update.getId() == null) {
+                throw new IllegalArgumentException("Product id is required");
+            }
+            if (update.getPrice() != null && update.getPrice().compareTo(BigDecimal.ZERO) < 0) {
+                throw new IllegalArgumentException("Price cannot be negative (product " + update.getId() + ")");
+            }
+            if (update.getInventory() != null && update.getInventory() < 0) {
+                throw new IllegalArgumentException("Inventory cannot be negative (product " + update.getId() + ")");
+            }
+            if (update.getPrice() != null || update.getInventory() != null) {
+                changes.add(update);
+            }
+        }
+
+        // UPDATE direto via JDBC batch, sem carregar as entidades
+        int[][] counts = jdbcTemplate.batchUpdate(BULK_UPDATE_SQL, changes, BULK_UPDATE_BATCH_SIZE, (ps, update) -> {
+            ps.setObject(1, update.getPrice(), Types.NUMERIC);
+            ps.setObject(2, update.getInventory(), Types.INTEGER);
+            ps.setLong(3, update.getId());
+        });
+
+        List<Long> updatedIds = new ArrayList<>(changes.size());
+        List<Long> notFound = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                Long id = changes.get(index++).getId();
+                if (count == 0) {
+                    notFound.add(id);
+                } else {
+                    updatedIds.add(id);
+                }
+            }
+        }
+        if (!updatedIds.isEmpty()) {
+            // um único evento para o lote inteiro, tratado após o commit
+            eventPublisher.publishEvent(new ProductChangedEvent(updatedIds));
+        }
+        return new ProductBulkUpdateResultDto(updates.size(), updatedIds.size(), updates.size() - changes.size(), notFound);
     }
 
     private Product updateExistingProduct(Product existingProduct, ProductUpdateRequest request){
@@ -130,54 +228,154 @@ public class ProductService implements IProductService {
     }
 
     @Override
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    public ProductPageDto getAllProducts(Long after, int limit) {
+        int pageSize = pageSize(limit);
+        List<ProductDto> rows = catalogReadModel.snapshot()
+                .map(catalog -> catalog.findAll(cursor(after), pageSize + 1))
+                .orElseGet(() -> getConvertedProducts(
+                        productRepository.findByIdGreaterThanOrderByIdAsc(cursor(after), keyset(pageSize))));
+        return toPage(rows, pageSize);
     }
 
     @Override
-    public List<Product> getProductsByCategory(String category) {
-        return productRepository.findByCategoryName(category);
+    public ProductPageDto getProductsByCategory(String category, Long after, int limit) {
+        int pageSize = pageSize(limit);
+        List<ProductDto> rows = catalogReadModel.snapshot()
+                .map(catalog -> catalog.findByCategory(category, cursor(after), pageSize + 1))
+                .orElseGet(() -> getConvertedProducts(productRepository.findByCategoryNameAndIdGreaterThanOrderByIdAsc(
+                        category, cursor(after), keyset(pageSize))));
+        return toPage(rows, pageSize);
     }
 
     @Override
-    public List<Product> getProductsByBrand(String brand) {
-        return productRepository.findByBrand(brand);
+    public ProductPageDto getProductsByBrand(String brand, Long after, int limit) {
+        int pageSize = pageSize(limit);
+        List<ProductDto> rows = catalogReadModel.snapshot()
+                .map(catalog -> catalog.findByBrand(brand, cursor(after), pageSize + 1))
+                .orElseGet(() -> getConvertedProducts(productRepository.findByBrandAndIdGreaterThanOrderByIdAsc(
+                        brand, cursor(after), keyset(pageSize))));
+        return toPage(rows, pageSize);
     }
 
     @Override
-    public List<Product> getProductsByCategoryAndBrand(String category, String brand) {
-        return productRepository.findByCategoryNameAndBrand(category, brand);
+    public ProductPageDto getProductsByCategoryAndBrand(String category, String brand, Long after, int limit) {
+        int pageSize = pageSize(limit);
+        List<ProductDto> rows = catalogReadModel.snapshot()
+                .map(catalog -> catalog.findByCategoryAndBrand(category, brand, cursor(after), pageSize + 1))
+                .orElseGet(() -> getConvertedProducts(productRepository.findByCategoryNameAndBrandAndIdGreaterThanOrderByIdAsc(
+                        category, brand, cursor(after), keyset(pageSize))));
+        return toPage(rows, pageSize);
     }
 
     @Override
-    public List<Product> getProductsByName(String name) {
-        return productRepository.findByName(name);
+    public ProductPageDto getProductsByName(String name, Long after, int limit) {
+        int pageSize = pageSize(limit);
+        List<ProductDto> rows = catalogReadModel.snapshot()
+                .map(catalog -> catalog.findByName(name, cursor(after), pageSize + 1))
+                .orElseGet(() -> getConvertedProducts(productRepository.findByNameAndIdGreaterThanOrderByIdAsc(
+                        name, cursor(after), keyset(pageSize))));
+        return toPage(rows, pageSize);
     }
 
     @Override
-    public List<Product> getProductsByBrandAndName(String brand, String name) {
-        return productRepository.findByBrandAndName(brand, name);
+    public ProductPageDto getProductsByBrandAndName(String brand, String name, Long after, int limit) {
+        int pageSize = pageSize(limit);
+        List<ProductDto> rows = catalogReadModel.snapshot()
+                .map(catalog -> catalog.findByBrandAndName(brand, name, cursor(after), pageSize + 1))
+                .orElseGet(() -> getConvertedProducts(productRepository.findByBrandAndNameAndIdGreaterThanOrderByIdAsc(
+                        brand, name, cursor(after), keyset(pageSize))));
+        return toPage(rows, pageSize);
+    }
+
+    // Sem o catálogo em memória (carga inicial em andamento ou read model desativado) a busca vai ao banco
+    @Override
+    public List<ProductDto> searchProducts(String query, int limit) {
+        int pageSize = pageSize(limit);
+        return catalogReadModel.snapshot()
+                .map(catalog -> productSearchIndex.search(query, pageSize).stream()
+                        .map(catalog::findById)
+                        .flatMap(Optional::stream)
+                        .toList())
+                .orElseGet(() -> searchInDatabase(query, pageSize));
+    }
+
+    private List<ProductDto> searchInDatabase(String query, int pageSize) {
+        String text = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (text.isEmpty()) {
+            return List.of();
+        }
+        String escaped = text.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        return getConvertedProducts(productRepository.searchByText("%" + escaped + "%", PageRequest.ofSize(pageSize)));
+    }
+
+    @Override
+    public ProductFacetsDto getProductFacets(String category, String brand, int limit) {
+        ProductFacetIndex.FacetResult facets = productFacetIndex.facets(category, brand, pageSize(limit));
+        List<ProductDto> products = catalogReadModel.snapshot()
+                .map(catalog -> facets.productIds().stream()
+                        .map(catalog::findById)
+                        .flatMap(Optional::stream)
+                        .toList())
+                .orElse(List.of());
+        return new ProductFacetsDto(facets.total(), products, facets.brandCounts(), facets.categoryCounts());
+    }
+
+    @Override
+    public List<ProductSuggestionDto> suggestProducts(String prefix, int limit) {
+        return productSuggestIndex.suggest(prefix, pageSize(limit));
+    }
+
+    private static int pageSize(int limit) {
+        return Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+    }
+
+    private static long cursor(Long after) {
+        return after == null ? 0L : after;
+    }
+
+    // Busca uma linha a mais que o tamanho da página para saber se existe próxima página
+    private static Pageable keyset(int pageSize) {
+        return PageRequest.ofSize(pageSize + 1);
+    }
+
+    private static ProductPageDto toPage(List<ProductDto> rows, int pageSize) {
+        boolean hasNext = rows.size() > pageSize;
+        List<ProductDto> products = hasNext ? rows.subList(0, pageSize) : rows;
+        Long nextCursor = hasNext ? products.get(products.size() - 1).getId() : null;
+        return new ProductPageDto(products, nextCursor);
     }
 
     @Override
     public Long countProductsByBrandAndName(String brand, String name) {
-        return productRepository.countByBrandAndName(brand, name);
+        return catalogReadModel.snapshot()
+                .map(catalog -> catalog.countByBrandAndName(brand, name))
+                .orElseGet(() -> productRepository.countByBrandAndName(brand, name));
     }
 
     @Override
     public List<ProductDto> getConvertedProducts(List<Product> products) {
-      return products.stream().map(this::convertToDto).toList();
+        if (products.isEmpty()) {
+            return List.of();
+        }
+        // Um único SELECT ... IN (...) para as imagens de todos os produtos da lista
+        List<Long> productIds = products.stream().map(Product::getId).toList();
+        Map<Long, List<ImageDto>> imagesByProductId = new HashMap<>();
+        for (ImageSummary image : imageRepository.findSummariesByProductIdIn(productIds)) {
+            imagesByProductId.computeIfAbsent(image.productId(), id -> new ArrayList<>())
+                    .add(productMapper.toImageDto(image));
+        }
+        return products.stream()
+                .map(product -> productMapper.toDto(product, imagesByProductId.getOrDefault(product.getId(), List.of())))
+                .toList();
     }
 
     @Override
     public ProductDto convertToDto(Product product) {
-        ProductDto productDto = modelMapper.map(product, ProductDto.class);
-        List<Image> images = imageRepository.findByProductId(product.getId());
-        List<ImageDto> imageDtos = images.stream()
-            .map(image -> modelMapper.map(image, ImageDto.class))
-            .toList();
-        productDto.setImages(imageDtos);
-        return productDto;
+        List<ImageDto> imageDtos = imageRepository.findSummariesByProductId(product.getId())
+                .stream()
+                .map(productMapper::toImageDto)
+                .toList();
+        return productMapper.toDto(product, imageDtos);
     }
     
 }
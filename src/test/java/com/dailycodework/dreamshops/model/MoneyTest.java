@@ -0,0 +1,112 @@
+package com.dailycodework.dreamshops.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Money - Testes Unitários")
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @ParameterizedTest(name = "{0} -> {1} centavos")
+    @CsvSource({
+        "12.344, 1234",
+        "12.345, 1235",
+        "0.005, 1",
+        "0.004, 0",
+        "-0.005, -1",
+        "-12.345, -1235",
+        "999.99, 99999",
+        "7, 700"
+    })
+    @DisplayName("Deve arredondar para 2 casas com HALF_UP na conversão de BigDecimal")
+    void shouldRoundHalfUpToTwoDecimals(String amount, long expectedCents) {
+        // ACT
+        Money money = Money.of(new BigDecimal(amount));
+
+        // ASSERT
+        assertThat(money.cents()).isEqualTo(expectedCents);
+        assertThat(money.toBigDecimal().scale()).isEqualTo(Money.SCALE);
+    }
+
+    @Test
+    @DisplayName("Deve converter nulo em nulo e zero na constante ZERO")
+    void shouldHandleNullAndZero() {
+        assertThat(Money.of(null)).isNull();
+        assertThat(Money.of(new BigDecimal("0.00"))).isSameAs(Money.ZERO);
+        assertThat(Money.ofCents(0)).isSameAs(Money.ZERO);
+    }
+
+    @Test
+    @DisplayName("Deve somar, subtrair e multiplicar em centavos sem perder precisão")
+    void shouldDoArithmeticInCents() {
+        // ARRANGE
+        Money price = Money.of(new BigDecimal("0.10"));
+
+        // ACT & ASSERT - 0.1 + 0.2 em double daria 0.30000000000000004
+        assertThat(price.plus(Money.of(new BigDecimal("0.20")))).isEqualTo(Money.ofCents(30));
+        assertThat(price.minus(Money.ofCents(25))).isEqualTo(Money.ofCents(-15));
+        assertThat(price.times(3)).isEqualTo(Money.ofCents(30));
+        assertThat(Money.ofCents(1050).toString()).isEqualTo("10.50");
+        assertThat(Money.ofCents(100).compareTo(Money.ofCents(99))).isPositive();
+    }
+
+    @Test
+    @DisplayName("Deve lançar ArithmeticException em vez de estourar o long")
+    void shouldThrowOnOverflow() {
+        // ARRANGE
+        Money max = Money.ofCents(Long.MAX_VALUE);
+        Money min = Money.ofCents(Long.MIN_VALUE);
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> max.plus(Money.ofCents(1))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> min.minus(Money.ofCents(1))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> max.times(2)).isInstanceOf(ArithmeticException.class);
+        // longValueExact: valores acima de Long.MAX_VALUE centavos não cabem
+        BigDecimal tooLarge = BigDecimal.valueOf(Long.MAX_VALUE).movePointLeft(Money.SCALE).add(new BigDecimal("0.01"));
+        assertThatThrownBy(() -> Money.of(tooLarge)).isInstanceOf(ArithmeticException.class);
+        assertThat(Money.of(tooLarge.subtract(new BigDecimal("0.01")))).isEqualTo(max);
+    }
+
+    @Test
+    @DisplayName("Deve converter para a coluna numeric e de volta sem alterar o valor")
+    void shouldRoundTripThroughJpaConverter() {
+        // ARRANGE
+        MoneyConverter converter = new MoneyConverter();
+        Money money = Money.ofCents(123456);
+
+        // ACT
+        BigDecimal column = converter.convertToDatabaseColumn(money);
+
+        // ASSERT
+        assertThat(column).isEqualByComparingTo("1234.56");
+        assertThat(column.scale()).isEqualTo(2);
+        assertThat(converter.convertToEntityAttribute(column)).isEqualTo(money);
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve serializar como número decimal e desserializar arredondando para 2 casas")
+    void shouldSerializeAsDecimalNumberInJson() throws Exception {
+        // ACT & ASSERT - serialização
+        assertThat(objectMapper.writeValueAsString(Money.ofCents(1230))).isEqualTo("12.30");
+        assertThat(objectMapper.writeValueAsString(new Priced(Money.ofCents(-5)))).isEqualTo("{\"price\":-0.05}");
+
+        // ACT & ASSERT - desserialização
+        assertThat(objectMapper.readValue("12.345", Money.class)).isEqualTo(Money.ofCents(1235));
+        assertThat(objectMapper.readValue("{\"price\":19.9}", Priced.class).price()).isEqualTo(Money.ofCents(1990));
+        assertThat(objectMapper.readValue("{\"price\":null}", Priced.class).price()).isNull();
+    }
+
+    private record Priced(Money price) {
+    }
+}
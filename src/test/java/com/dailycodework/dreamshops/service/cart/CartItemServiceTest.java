@@ -0,0 +1,375 @@
+package com.dailycodework.dreamshops.service.cart;
+
+import com.dailycodework.dreamshops.exceptions.ResourceNotFoundException;
+import com.dailycodework.dreamshops.mapper.OrderMapper;
+import com.dailycodework.dreamshops.model.Cart;
+import com.dailycodework.dreamshops.model.CartItem;
+import com.dailycodework.dreamshops.model.Money;
+import com.dailycodework.dreamshops.model.Order;
+import com.dailycodework.dreamshops.model.OrderItem;
+import com.dailycodework.dreamshops.model.Product;
+import com.dailycodework.dreamshops.model.User;
+import com.dailycodework.dreamshops.repository.CartItemRepository;
+import com.dailycodework.dreamshops.repository.CartRepository;
+import com.dailycodework.dreamshops.repository.OrderRepository;
+import com.dailycodework.dreamshops.repository.ProductRepository;
+import com.dailycodework.dreamshops.service.order.OrderService;
+import com.dailycodework.dreamshops.service.product.IProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CartItemService - Testes de Concorrência")
+class CartItemServiceTest {
+
+    private static final int THREADS = 16;
+    private static final int ADDS_PER_THREAD = 250;
+
+    @Mock
+    private CartItemRepository cartItemRepository;
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private IProductService productService;
+
+    @Mock
+    private ICartService cartService;
+
+    @Mock
+    private CartWriteBehindStore cartWriteBehindStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderMapper orderMapper;
+
+    private final CartLocks cartLocks = new CartLocks();
+    private CartItemService cartItemService;
+    private Product testProduct;
+    private final AtomicLong itemIds = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        // ARRANGE - Serviço real sobre repositórios simulados; a transação não faz nada
+        cartItemService = new CartItemService(cartItemRepository, cartRepository, productRepository, productService,
+                cartService, cartWriteBehindStore, cartLocks, transactionManager);
+
+        testProduct = new Product("iPhone 15", "Apple", new BigDecimal("999.99"), 50, "Latest iPhone model", null);
+        testProduct.setId(1L);
+
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(cartWriteBehindStore.isEnabled()).thenReturn(false);
+        lenient().when(productService.getProductById(testProduct.getId())).thenReturn(testProduct);
+        // Como o IDENTITY do banco: o item ganha id ao ser salvo pela primeira vez
+        lenient().when(cartItemRepository.save(any(CartItem.class))).thenAnswer(invocation -> {
+            CartItem item = invocation.getArgument(0);
+            if (item.getId() == null) {
+                item.setId(itemIds.incrementAndGet());
+            }
+            return item;
+        });
+    }
+
+    @Test
+    @DisplayName("Deve somar todas as adições concorrentes ao mesmo carrinho sem duplicar itens")
+    void shouldKeepQuantitiesAndTotalsUnderConcurrentAdds() throws Exception {
+        // ARRANGE
+        Cart cart = cartWithId(1L);
+        when(cartService.getCartForUpdate(1L)).thenReturn(cart);
+
+        // ACT
+        hammer(List.of(1L));
+
+        // ASSERT
+        int expectedQuantity = THREADS * ADDS_PER_THREAD;
+        assertThat(cart.getItems()).hasSize(1);
+        CartItem item = cart.getItems().iterator().next();
+        assertThat(item.getQuantity()).isEqualTo(expectedQuantity);
+        assertThat(item.getTotalPrice()).isEqualTo(Money.of(testProduct.getPrice()).times(expectedQuantity));
+        assertThat(cart.getTotalAmount()).isEqualTo(item.getTotalPrice());
+        verify(cartRepository, times(expectedQuantity)).save(cart);
+    }
+
+    @Test
+    @DisplayName("Deve manter carrinhos diferentes corretos quando alterados em paralelo")
+    void shouldKeepSeparateCartsConsistentInParallel() throws Exception {
+        // ARRANGE
+        Cart firstCart = cartWithId(1L);
+        Cart secondCart = cartWithId(2L);
+        when(cartService.getCartForUpdate(1L)).thenReturn(firstCart);
+        when(cartService.getCartForUpdate(2L)).thenReturn(secondCart);
+
+        // ACT
+        hammer(List.of(1L, 2L));
+
+        // ASSERT
+        int expectedQuantity = THREADS * ADDS_PER_THREAD / 2;
+        for (Cart cart : List.of(firstCart, secondCart)) {
+            assertThat(cart.getItems()).hasSize(1);
+            assertThat(cart.getItems().iterator().next().getQuantity()).isEqualTo(expectedQuantity);
+            assertThat(cart.getTotalAmount()).isEqualTo(Money.of(testProduct.getPrice()).times(expectedQuantity));
+        }
+    }
+
+    @ParameterizedTest(name = "write-behind = {0}")
+    @ValueSource(booleans = {false, true})
+    @DisplayName("Deve levar para o pedido exatamente as adições concluídas antes dele, com ou sem write-behind")
+    void shouldPlaceOrderWithExactlyTheAddsThatCompletedBeforeIt(boolean writeBehind) throws Exception {
+        // ARRANGE - serviços reais de carrinho e pedido sobre o mesmo lock; o carrinho apagado some do "banco"
+        User user = new User();
+        user.setId(7L);
+        Cart cart = cartWithId(1L);
+        cart.setUser(user);
+        AtomicBoolean deleted = new AtomicBoolean();
+        when(cartRepository.findWithItemsById(1L)).thenAnswer(invocation -> deleted.get() ? Optional.empty() : Optional.of(cart));
+        when(cartRepository.findByUserId(7L)).thenReturn(cart);
+        doAnswer(invocation -> {
+            deleted.set(true);
+            return null;
+        }).when(cartRepository).deleteById(1L);
+        // Latência de banco entre copiar os itens para o pedido e apagar o carrinho: é aí que uma adição se perderia
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            TimeUnit.MILLISECONDS.sleep(50);
+            return invocation.getArgument(0);
+        });
+
+        CartWriteBehindStore store = cartWriteBehindStore;
+        if (writeBehind) {
+            store = new CartWriteBehindStore(cartRepository, productRepository, cartLocks, transactionManager);
+            ReflectionTestUtils.setField(store, "enabled", true);
+            when(productRepository.getReferenceById(testProduct.getId())).thenReturn(testProduct);
+        }
+        CartService realCartService = new CartService(cartRepository, cartItemRepository, productService, store,
+                cartLocks, transactionManager);
+        cartItemService = new CartItemService(cartItemRepository, cartRepository, productRepository, productService,
+                realCartService, store, cartLocks, transactionManager);
+        OrderService orderService = new OrderService(orderRepository, productRepository, realCartService, orderMapper,
+                cartLocks, store, transactionManager);
+
+        // ACT - o pedido é feito no meio das adições; as que chegam depois encontram o carrinho apagado
+        AtomicInteger completedAdds = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        Order order;
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ADDS_PER_THREAD; i++) {
+                        try {
+                            cartItemService.addItemToCart(1L, testProduct.getId(), 1);
+                            completedAdds.incrementAndGet();
+                        } catch (ResourceNotFoundException e) {
+                            // carrinho já virou pedido
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            await().atMost(Duration.ofSeconds(10)).until(() -> completedAdds.get() >= THREADS * ADDS_PER_THREAD / 4);
+            order = orderService.placeOrder(7L);
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // ASSERT - nenhuma adição concluída ficou fora do pedido e nenhum item voltou ao carrinho apagado
+        int orderedQuantity = order.getOrderItems().stream().mapToInt(OrderItem::getQuantity).sum();
+        assertThat(orderedQuantity).isEqualTo(completedAdds.get());
+        assertThat(cart.getItems()).isEmpty();
+        verify(cartItemRepository).deleteAllByCartId(1L);
+    }
+
+    @Test
+    @DisplayName("Não deve gravar no banco ao resolver o carrinho e adicionar itens com o write-behind ativo")
+    void shouldNotWriteToDatabaseOnAddWithWriteBehind() {
+        // ARRANGE - mesmo fluxo do CartItemController: resolve o carrinho do usuário e adiciona
+        User user = new User();
+        user.setId(7L);
+        Cart cart = cartWithId(1L);
+        cart.setUser(user);
+        when(cartRepository.findByUserId(7L)).thenReturn(cart);
+        when(cartRepository.findWithItemsById(1L)).thenReturn(Optional.of(cart));
+        CartWriteBehindStore store = new CartWriteBehindStore(cartRepository, productRepository, cartLocks, transactionManager);
+        ReflectionTestUtils.setField(store, "enabled", true);
+        CartService realCartService = new CartService(cartRepository, cartItemRepository, productService, store,
+                cartLocks, transactionManager);
+        cartItemService = new CartItemService(cartItemRepository, cartRepository, productRepository, productService,
+                realCartService, store, cartLocks, transactionManager);
+
+        // ACT
+        for (int i = 0; i < 3; i++) {
+            Cart resolved = realCartService.initializeNewCart(user);
+            cartItemService.addItemToCart(resolved.getId(), testProduct.getId(), 1);
+        }
+
+        // ASSERT - só a carga inicial do carrinho; nada é gravado até o flush
+        verify(cartRepository, times(1)).findWithItemsById(1L);
+        verify(cartRepository, never()).save(any(Cart.class));
+        verifyNoInteractions(cartItemRepository);
+    }
+
+    @Test
+    @DisplayName("Deve gravar o write-behind antes de abrir a transação nos caminhos de escrita")
+    void shouldFlushWriteBehindBeforeOpeningTransaction() {
+        // ARRANGE - uma conexão para o flush e outra para a transação, nunca as duas ao mesmo tempo
+        Cart cart = cartWithId(1L);
+        cart.setUser(new User());
+        when(cartService.getCartForUpdate(1L)).thenReturn(cart);
+        CartService realCartService = new CartService(cartRepository, cartItemRepository, productService,
+                cartWriteBehindStore, cartLocks, transactionManager);
+        when(cartRepository.findWithItemsById(1L)).thenReturn(Optional.of(cart));
+        when(cartRepository.findByUserId(7L)).thenReturn(cart);
+        OrderService orderService = new OrderService(orderRepository, productRepository, realCartService, orderMapper,
+                cartLocks, cartWriteBehindStore, transactionManager);
+
+        // ACT & ASSERT - alteração de item, pedido (que também esvazia o carrinho)
+        InOrder inOrder = inOrder(cartWriteBehindStore, transactionManager);
+        cartItemService.updateItemQuantity(1L, testProduct.getId(), 2);
+        inOrder.verify(cartWriteBehindStore).flushAndEvict(1L);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(transactionManager).commit(any());
+
+        orderService.placeOrder(7L);
+        inOrder.verify(cartWriteBehindStore).flushAndEvict(1L);
+        inOrder.verify(transactionManager).getTransaction(any());
+        // clearCart dentro do pedido: o carrinho já saiu da memória e a transação é a mesma
+        inOrder.verify(cartWriteBehindStore).flushAndEvict(1L);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(transactionManager, times(2)).commit(any());
+
+        realCartService.clearCart(1L);
+        inOrder.verify(cartWriteBehindStore).flushAndEvict(1L);
+        inOrder.verify(transactionManager).getTransaction(any());
+    }
+
+    @Test
+    @DisplayName("Deve esvaziar o carrinho e a adição seguinte encontrar o carrinho já apagado")
+    void shouldClearCartUnderTheSameLockAsAdds() throws Exception {
+        // ARRANGE - a limpeza confere que segura o lock do carrinho enquanto apaga os itens
+        Cart cart = cartWithId(1L);
+        AtomicBoolean deleted = new AtomicBoolean();
+        when(cartRepository.findWithItemsById(1L)).thenAnswer(invocation -> deleted.get() ? Optional.empty() : Optional.of(cart));
+        doAnswer(invocation -> {
+            assertThat(((ReentrantLock) cartLocks.lockFor(1L)).isHeldByCurrentThread()).isTrue();
+            return null;
+        }).when(cartItemRepository).deleteAllByCartId(1L);
+        doAnswer(invocation -> {
+            deleted.set(true);
+            return null;
+        }).when(cartRepository).deleteById(1L);
+        CartService realCartService = new CartService(cartRepository, cartItemRepository, productService,
+                cartWriteBehindStore, cartLocks, transactionManager);
+        cartItemService = new CartItemService(cartItemRepository, cartRepository, productRepository, productService,
+                realCartService, cartWriteBehindStore, cartLocks, transactionManager);
+        cartItemService.addItemToCart(1L, testProduct.getId(), 2);
+
+        // ACT
+        realCartService.clearCart(1L);
+
+        // ASSERT
+        assertThat(cart.getItems()).isEmpty();
+        assertThatThrownBy(() -> cartItemService.addItemToCart(1L, testProduct.getId(), 1))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(cart.getItems()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve adicionar pelo write-behind sob o lock do carrinho")
+    void shouldAddThroughWriteBehindUnderCartLock() throws Exception {
+        // ARRANGE
+        when(cartWriteBehindStore.isEnabled()).thenReturn(true);
+        AtomicInteger insideAdd = new AtomicInteger();
+        AtomicInteger maxInsideAdd = new AtomicInteger();
+        doAnswer(invocation -> {
+            assertThat(((ReentrantLock) cartLocks.lockFor(1L)).isHeldByCurrentThread()).isTrue();
+            maxInsideAdd.accumulateAndGet(insideAdd.incrementAndGet(), Math::max);
+            insideAdd.decrementAndGet();
+            return null;
+        }).when(cartWriteBehindStore).addItem(eq(1L), eq(testProduct), eq(1));
+
+        // ACT
+        hammer(List.of(1L));
+
+        // ASSERT - nunca duas threads dentro do mesmo carrinho em memória
+        assertThat(maxInsideAdd).hasValue(1);
+        verify(cartWriteBehindStore, times(THREADS * ADDS_PER_THREAD)).addItem(1L, testProduct, 1);
+        verifyNoInteractions(cartService, cartRepository);
+    }
+
+    // Todas as threads começam juntas; cada uma adiciona uma unidade por vez, alternando entre os carrinhos
+    private void hammer(List<Long> cartIds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                Long cartId = cartIds.get(t % cartIds.size());
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ADDS_PER_THREAD; i++) {
+                        cartItemService.addItemToCart(cartId, testProduct.getId(), 1);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Cart cartWithId(Long id) {
+        Cart cart = new Cart();
+        cart.setId(id);
+        return cart;
+    }
+}
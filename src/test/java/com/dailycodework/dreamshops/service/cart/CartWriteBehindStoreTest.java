@@ -0,0 +1,128 @@
+package com.dailycodework.dreamshops.service.cart;
+
+import com.dailycodework.dreamshops.model.Cart;
+import com.dailycodework.dreamshops.model.Product;
+import com.dailycodework.dreamshops.repository.CartRepository;
+import com.dailycodework.dreamshops.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CartWriteBehindStore - Testes de Concorrência")
+class CartWriteBehindStoreTest {
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final CartLocks cartLocks = new CartLocks();
+    private CartWriteBehindStore store;
+    private Cart cart;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        // ARRANGE - store real com o write-behind ligado; a transação não faz nada
+        store = new CartWriteBehindStore(cartRepository, productRepository, cartLocks, transactionManager);
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "ttl", Duration.ofMinutes(30));
+
+        cart = new Cart();
+        cart.setId(1L);
+        product = new Product("iPhone 15", "Apple", new BigDecimal("999.99"), 50, "Latest iPhone model", null);
+        product.setId(10L);
+
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(cartRepository.findWithItemsById(1L)).thenReturn(Optional.of(cart));
+        lenient().when(productRepository.getReferenceById(10L)).thenReturn(product);
+    }
+
+    @Test
+    @DisplayName("Deve gravar o carrinho alterado em memória no próximo flush")
+    void shouldWriteDirtyCartOnFlush() {
+        // ARRANGE
+        store.addItem(1L, product, 2);
+        store.addItem(1L, product, 1);
+
+        // ACT
+        store.flushDirty();
+        store.flushDirty();
+
+        // ASSERT - o segundo flush não tem nada pendente
+        assertThat(cart.getItem(10L).getQuantity()).isEqualTo(3);
+        verify(cartRepository, times(1)).save(cart);
+    }
+
+    @Test
+    @DisplayName("Deve gravar os demais carrinhos do lote e descartar o que não pode ser gravado")
+    void shouldIsolateCartThatCannotBeWritten() {
+        // ARRANGE - os carrinhos 1 e 65 caem na mesma faixa de lock, logo no mesmo lote
+        Cart broken = new Cart();
+        broken.setId(65L);
+        when(cartRepository.findWithItemsById(65L)).thenReturn(Optional.of(broken));
+        // lenient: o save do carrinho 1 usa outro argumento
+        lenient().when(cartRepository.save(broken)).thenThrow(new DataIntegrityViolationException("fk_cart_item_product"));
+        store.addItem(1L, product, 1);
+        store.addItem(65L, product, 1);
+
+        // ACT
+        store.flushDirty();
+        store.flushDirty();
+
+        // ASSERT - o lote falha, o carrinho 1 é gravado sozinho e o 65 sai da memória sem novas tentativas
+        assertThat(cart.getItem(10L).getQuantity()).isEqualTo(1);
+        verify(cartRepository, atLeastOnce()).save(cart);
+        verify(cartRepository, times(2)).save(broken);
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    @Test
+    @DisplayName("Não deve sobrescrever uma alteração feita pelo banco depois que o carrinho saiu da memória")
+    void shouldNotOverwriteChangesMadeAfterEviction() throws Exception {
+        // ARRANGE - outra requisição segura o lock do carrinho enquanto o flush agendado começa
+        store.addItem(1L, product, 2);
+        Lock lock = cartLocks.lockFor(1L);
+        lock.lock();
+        CompletableFuture<Void> scheduledFlush;
+        try {
+            scheduledFlush = CompletableFuture.runAsync(store::flushDirty);
+            TimeUnit.MILLISECONDS.sleep(200);
+            assertThat(scheduledFlush).isNotDone();
+
+            // ACT - caminho pelo banco: grava, tira da memória e remove o item
+            store.flushAndEvict(1L);
+            cart.removeItem(cart.getItem(10L));
+        } finally {
+            lock.unlock();
+        }
+        scheduledFlush.get(5, TimeUnit.SECONDS);
+
+        // ASSERT - o flush agendado não regravou a cópia antiga
+        assertThat(cart.getItems()).isEmpty();
+        verify(cartRepository, times(1)).save(cart);
+    }
+}
@@ -0,0 +1,129 @@
+package com.dailycodework.dreamshops.service.catalog;
+
+import com.dailycodework.dreamshops.repository.ProductRepository;
+import com.dailycodework.dreamshops.service.product.IProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CatalogSynchronizer - Testes Unitários")
+class CatalogSynchronizerTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private IProductService productService;
+
+    @Mock
+    private CatalogReadModel catalogReadModel;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CatalogSynchronizer catalogSynchronizer;
+
+    @BeforeEach
+    void setUp() {
+        catalogSynchronizer = new CatalogSynchronizer(productRepository, productService, catalogReadModel, transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalogSynchronizer.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve agrupar as alterações que chegam durante uma atualização numa única aplicação")
+    void shouldCoalesceChangesThatArriveWhileRefreshing() throws Exception {
+        // ARRANGE - a primeira aplicação fica bloqueada até as demais alterações chegarem
+        CountDownLatch firstRefreshStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstRefresh = new CountDownLatch(1);
+        List<List<Long>> refreshedIds = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            refreshedIds.add(new ArrayList<>(ids));
+            if (refreshedIds.size() == 1) {
+                firstRefreshStarted.countDown();
+                releaseFirstRefresh.await(5, TimeUnit.SECONDS);
+            }
+            return null;
+        }).when(catalogReadModel).refresh(any(), any());
+
+        // ACT
+        catalogSynchronizer.onProductChanged(ProductChangedEvent.of(1L));
+        assertThat(firstRefreshStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        for (long id = 2; id <= 50; id++) {
+            catalogSynchronizer.onProductChanged(ProductChangedEvent.of(id));
+        }
+        catalogSynchronizer.onProductChanged(ProductChangedEvent.of(2L));
+        releaseFirstRefresh.countDown();
+
+        // ASSERT - 1 sozinho, depois 2..50 juntos e sem repetição
+        await().atMost(Duration.ofSeconds(5)).until(() -> refreshedIds.size() == 2);
+        assertThat(refreshedIds.get(0)).containsExactly(1L);
+        assertThat(refreshedIds.get(1)).hasSize(49).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("Deve devolver os ids para a fila e tentar de novo quando a aplicação falha")
+    void shouldRetryIdsWhenRefreshFails() {
+        // ARRANGE - a primeira aplicação falha ao ler o banco
+        List<List<Long>> refreshedIds = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            refreshedIds.add(new ArrayList<>(ids));
+            if (refreshedIds.size() == 1) {
+                throw new CannotCreateTransactionException("Connection is not available");
+            }
+            return null;
+        }).when(catalogReadModel).refresh(any(), any());
+
+        // ACT
+        catalogSynchronizer.onProductChanged(ProductChangedEvent.of(1L));
+
+        // ASSERT - o id 1 não se perde e é aplicado na segunda tentativa
+        await().atMost(Duration.ofSeconds(5)).until(() -> refreshedIds.size() == 2);
+        assertThat(refreshedIds.get(1)).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Deve recarregar o catálogo em segundo plano sem propagar a falha para quem pediu")
+    void shouldReloadCatalogInBackground() {
+        // ARRANGE - a recarga falha
+        ReflectionTestUtils.setField(catalogSynchronizer, "enabled", true);
+        List<String> loadThreads = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            loadThreads.add(Thread.currentThread().getName());
+            throw new CannotCreateTransactionException("Connection is not available");
+        }).when(catalogReadModel).load(any());
+
+        // ACT
+        catalogSynchronizer.onCatalogReload();
+
+        // ASSERT - nenhuma exceção aqui; a carga rodou na thread do refresher
+        await().atMost(Duration.ofSeconds(5)).until(() -> !loadThreads.isEmpty());
+        assertThat(loadThreads).containsExactly("catalog-refresh");
+    }
+}
@@ -0,0 +1,107 @@
+package com.dailycodework.dreamshops.service.catalog;
+
+import com.dailycodework.dreamshops.dto.ProductDto;
+import com.dailycodework.dreamshops.model.Category;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+@DisplayName("ProductFacetIndex - Testes Unitários")
+class ProductFacetIndexTest {
+
+    private ProductFacetIndex facetIndex;
+
+    @BeforeEach
+    void setUp() {
+        // ARRANGE
+        facetIndex = new ProductFacetIndex();
+        facetIndex.rebuild(List.of(
+            product(1L, "Apple", "Phones"),
+            product(2L, "Samsung", "Phones"),
+            product(3L, "Samsung", "TVs"),
+            product(4L, "LG", "TVs"),
+            product(5L, "Samsung", "Phones")
+        ));
+    }
+
+    @Test
+    @DisplayName("Deve contar produtos por marca e categoria sem filtros")
+    void shouldCountAllFacetsWithoutFilters() {
+        // ACT
+        ProductFacetIndex.FacetResult result = facetIndex.facets(null, null, 10);
+
+        // ASSERT - contagens ordenadas da maior para a menor
+        assertThat(result.total()).isEqualTo(5);
+        assertThat(result.productIds()).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(result.brandCounts()).containsExactly(entry("Samsung", 3), entry("Apple", 1), entry("LG", 1));
+        assertThat(result.categoryCounts()).containsExactly(entry("Phones", 3), entry("TVs", 2));
+    }
+
+    @Test
+    @DisplayName("Deve aplicar cada filtro apenas às contagens da outra faceta")
+    void shouldApplyEachFilterToTheOtherFacetCounts() {
+        // ACT
+        ProductFacetIndex.FacetResult result = facetIndex.facets("Phones", "Samsung", 10);
+
+        // ASSERT
+        assertThat(result.total()).isEqualTo(2);
+        assertThat(result.productIds()).containsExactly(2L, 5L);
+        assertThat(result.brandCounts()).containsExactly(entry("Samsung", 2), entry("Apple", 1));
+        assertThat(result.categoryCounts()).containsExactly(entry("Phones", 2), entry("TVs", 1));
+    }
+
+    @Test
+    @DisplayName("Deve limitar os ids retornados sem alterar o total")
+    void shouldLimitIdsButKeepTotal() {
+        // ACT
+        ProductFacetIndex.FacetResult result = facetIndex.facets(null, "Samsung", 2);
+
+        // ASSERT
+        assertThat(result.total()).isEqualTo(3);
+        assertThat(result.productIds()).containsExactly(2L, 3L);
+    }
+
+    @Test
+    @DisplayName("Deve refletir produtos alterados, removidos e adicionados")
+    void shouldReflectUpdatesRemovalsAndAdditions() {
+        // ACT
+        facetIndex.apply(List.of(product(2L, "Apple", "Phones"), product(6L, "LG", "Phones")), List.of(4L));
+        ProductFacetIndex.FacetResult result = facetIndex.facets(null, null, 10);
+
+        // ASSERT
+        assertThat(result.total()).isEqualTo(5);
+        assertThat(result.productIds()).containsExactlyInAnyOrder(1L, 2L, 3L, 5L, 6L);
+        assertThat(result.brandCounts()).containsExactly(entry("Apple", 2), entry("Samsung", 2), entry("LG", 1));
+        assertThat(result.categoryCounts()).containsExactly(entry("Phones", 4), entry("TVs", 1));
+    }
+
+    @Test
+    @DisplayName("Deve manter as contagens corretas ao crescer além de uma palavra do bitset")
+    void shouldKeepCountsWhenGrowingPastBitsetWord() {
+        // ARRANGE - adições uma a uma, como chegam do sincronizador
+        for (long id = 6; id <= 200; id++) {
+            facetIndex.apply(List.of(product(id, id % 2 == 0 ? "Apple" : "LG", "Cables")), List.of());
+        }
+
+        // ACT
+        ProductFacetIndex.FacetResult result = facetIndex.facets("Cables", null, 1000);
+
+        // ASSERT
+        assertThat(result.total()).isEqualTo(195);
+        assertThat(result.brandCounts()).containsEntry("Apple", 98).containsEntry("LG", 97);
+        assertThat(result.productIds()).hasSize(195).startsWith(6L, 7L).endsWith(200L);
+    }
+
+    private static ProductDto product(Long id, String brand, String category) {
+        ProductDto product = new ProductDto();
+        product.setId(id);
+        product.setBrand(brand);
+        product.setCategory(new Category(category));
+        return product;
+    }
+}
@@ -0,0 +1,110 @@
+package com.dailycodework.dreamshops.service.catalog;
+
+import com.dailycodework.dreamshops.dto.ProductDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ProductSearchIndex - Testes Unitários")
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        // ARRANGE - "phone" aparece em todos os produtos; "galaxy" só no Samsung
+        searchIndex = new ProductSearchIndex();
+        searchIndex.rebuild(List.of(
+            product(1L, "iPhone 15", "Apple", "Smart phone with great camera"),
+            product(2L, "Galaxy S24", "Samsung", "Android phone"),
+            product(3L, "Pixel 8", "Google", "Phone by Google"),
+            product(4L, "Capa de Celular", "Genérica", "Compatível com iPhone e Galaxy phone")
+        ));
+    }
+
+    @Test
+    @DisplayName("Deve separar termos por pontuação e ignorar acentos e maiúsculas")
+    void shouldTokenizeIgnoringPunctuationAccentsAndCase() {
+        assertThat(CatalogText.tokenize("Smart-TV 4K, AÇÃO!")).containsExactly("smart", "tv", "4k", "acao");
+        assertThat(CatalogText.tokenize(null)).isEmpty();
+        assertThat(CatalogText.tokenize("  --  ")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve encontrar produtos sem depender de acentos ou maiúsculas na consulta")
+    void shouldMatchRegardlessOfAccentsAndCase() {
+        assertThat(searchIndex.search("GENERICA", 10)).containsExactly(4L);
+        assertThat(searchIndex.search("compatível", 10)).containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("Deve ranquear o termo no nome acima do mesmo termo só na descrição")
+    void shouldRankNameMatchAboveDescriptionMatch() {
+        // ACT
+        List<Long> result = searchIndex.search("galaxy", 10);
+
+        // ASSERT
+        assertThat(result).containsExactly(2L, 4L);
+    }
+
+    @Test
+    @DisplayName("Deve dar mais peso ao termo raro da consulta (IDF)")
+    void shouldWeightRareTermsHigher() {
+        // ACT - "phone" está em todos; "pixel" só no Google
+        List<Long> result = searchIndex.search("phone pixel", 10);
+
+        // ASSERT
+        assertThat(result).hasSize(4);
+        assertThat(result.get(0)).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Deve favorecer documentos curtos quando a frequência do termo é a mesma")
+    void shouldFavorShorterDocumentsForSameTermFrequency() {
+        // ACT - "phone" aparece uma vez na descrição de todos; o Samsung tem o texto mais curto
+        List<Long> result = searchIndex.search("phone", 1);
+
+        // ASSERT
+        assertThat(result).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Deve respeitar o limite e desempatar pelo menor id")
+    void shouldRespectLimitAndBreakTiesById() {
+        // ARRANGE
+        searchIndex.rebuild(List.of(
+            product(7L, "Mouse", "Acme", null),
+            product(5L, "Mouse", "Acme", null),
+            product(6L, "Mouse", "Acme", null)
+        ));
+
+        // ACT & ASSERT
+        assertThat(searchIndex.search("mouse", 2)).containsExactly(5L, 6L);
+    }
+
+    @Test
+    @DisplayName("Deve refletir produtos alterados e removidos")
+    void shouldReflectUpdatesAndRemovals() {
+        // ACT
+        searchIndex.apply(List.of(product(3L, "Pixel 8 Pro", "Google", "Tablet")), List.of(2L));
+
+        // ASSERT
+        assertThat(searchIndex.search("galaxy", 10)).containsExactly(4L);
+        assertThat(searchIndex.search("tablet", 10)).containsExactly(3L);
+        assertThat(searchIndex.search("phone", 10)).containsExactlyInAnyOrder(1L, 4L);
+        assertThat(searchIndex.search("inexistente", 10)).isEmpty();
+    }
+
+    private static ProductDto product(Long id, String name, String brand, String description) {
+        ProductDto product = new ProductDto();
+        product.setId(id);
+        product.setName(name);
+        product.setBrand(brand);
+        product.setDescription(description);
+        return product;
+    }
+}
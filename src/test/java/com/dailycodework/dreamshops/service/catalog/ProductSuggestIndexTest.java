@@ -0,0 +1,100 @@
+package com.dailycodework.dreamshops.service.catalog;
+
+import com.dailycodework.dreamshops.dto.ProductDto;
+import com.dailycodework.dreamshops.dto.ProductSuggestionDto;
+import com.dailycodework.dreamshops.enums.SuggestionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DisplayName("ProductSuggestIndex - Testes Unitários")
+class ProductSuggestIndexTest {
+
+    private ProductSuggestIndex suggestIndex;
+
+    @BeforeEach
+    void setUp() {
+        // ARRANGE - "Samsung" é a marca de três produtos; "Sabão" aparece uma vez
+        suggestIndex = new ProductSuggestIndex();
+        suggestIndex.rebuild(List.of(
+            product(1L, "Galaxy S24", "Samsung"),
+            product(2L, "Galaxy Tab", "Samsung"),
+            product(3L, "Smart TV", "Samsung"),
+            product(4L, "Sabão em Pó", "Omo"),
+            product(5L, "iPhone 15", "Apple")
+        ));
+    }
+
+    @Test
+    @DisplayName("Deve sugerir termos pelo prefixo, do mais popular para o menos popular")
+    void shouldSuggestByPrefixOrderedByPopularity() {
+        // ACT
+        List<ProductSuggestionDto> result = suggestIndex.suggest("s", 10);
+
+        // ASSERT - empates desempatados pela forma normalizada
+        assertThat(result)
+            .extracting(ProductSuggestionDto::getText, ProductSuggestionDto::getType, ProductSuggestionDto::getPopularity)
+            .containsExactly(
+                tuple("Samsung", SuggestionType.BRAND, 3),
+                tuple("Sabão em Pó", SuggestionType.NAME, 1),
+                tuple("Smart TV", SuggestionType.NAME, 1)
+            );
+    }
+
+    @Test
+    @DisplayName("Deve ignorar acentos e maiúsculas no prefixo")
+    void shouldIgnoreAccentsAndCaseInPrefix() {
+        assertThat(suggestIndex.suggest("SABÃ", 10)).extracting(ProductSuggestionDto::getText).containsExactly("Sabão em Pó");
+        assertThat(suggestIndex.suggest("  gal", 10)).extracting(ProductSuggestionDto::getText)
+            .containsExactly("Galaxy S24", "Galaxy Tab");
+    }
+
+    @Test
+    @DisplayName("Deve manter apenas os top-k e retornar vazio para prefixo vazio ou sem correspondência")
+    void shouldKeepTopKAndReturnEmptyWhenNothingMatches() {
+        assertThat(suggestIndex.suggest("s", 1)).extracting(ProductSuggestionDto::getText).containsExactly("Samsung");
+        assertThat(suggestIndex.suggest("   ", 10)).isEmpty();
+        assertThat(suggestIndex.suggest(null, 10)).isEmpty();
+        assertThat(suggestIndex.suggest("xyz", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve atualizar a popularidade quando só os contadores mudam")
+    void shouldUpdatePopularityWhenTermsDoNotChange() {
+        // ACT - o produto 5 passa a ser da Samsung e o novo produto 6 repete uma marca existente
+        suggestIndex.apply(List.of(product(5L, "iPhone 15", "Samsung"), product(6L, "Galaxy S24", "Omo")), List.of());
+
+        // ASSERT
+        assertThat(suggestIndex.suggest("sam", 10)).extracting(ProductSuggestionDto::getPopularity).containsExactly(4);
+        assertThat(suggestIndex.suggest("galaxy s", 10)).extracting(ProductSuggestionDto::getPopularity).containsExactly(2);
+        assertThat(suggestIndex.suggest("omo", 10)).extracting(ProductSuggestionDto::getPopularity).containsExactly(2);
+    }
+
+    @Test
+    @DisplayName("Deve incluir termos novos e remover termos sem produtos")
+    void shouldAddNewTermsAndDropUnusedOnes() {
+        // ACT
+        suggestIndex.apply(List.of(product(4L, "Sabonete", "Omo"), product(7L, "Soundbar", "Sony")), List.of(5L));
+
+        // ASSERT
+        assertThat(suggestIndex.suggest("sab", 10)).extracting(ProductSuggestionDto::getText).containsExactly("Sabonete");
+        assertThat(suggestIndex.suggest("so", 10)).extracting(ProductSuggestionDto::getText).containsExactly("Sony", "Soundbar");
+        assertThat(suggestIndex.suggest("i", 10)).isEmpty();
+        assertThat(suggestIndex.suggest("a", 10)).isEmpty();
+        assertThat(suggestIndex.suggest("s", 10)).extracting(ProductSuggestionDto::getText)
+            .containsExactly("Samsung", "Sabonete", "Smart TV", "Sony", "Soundbar");
+    }
+
+    private static ProductDto product(Long id, String name, String brand) {
+        ProductDto product = new ProductDto();
+        product.setId(id);
+        product.setName(name);
+        product.setBrand(brand);
+        return product;
+    }
+}
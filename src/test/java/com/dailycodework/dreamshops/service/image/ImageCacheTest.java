@@ -0,0 +1,75 @@
+package com.dailycodework.dreamshops.service.image;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ImageCache - Testes Unitários")
+class ImageCacheTest {
+
+    private ImageCache imageCache;
+
+    @BeforeEach
+    void setUp() {
+        // ARRANGE - orçamento de 16 MB: conteúdos acima de 1 MB nunca são guardados
+        imageCache = new ImageCache(16, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Deve servir do disco na primeira falta e guardar em memória a partir da segunda")
+    void shouldServeFromDiskOnFirstMissAndCacheOnSecond() throws Exception {
+        // ARRANGE
+        Resource disk = new ByteArrayResource(new byte[]{1, 2, 3});
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Resource> loader = () -> {
+            loads.incrementAndGet();
+            return disk;
+        };
+
+        // ACT
+        Resource first = imageCache.content("abc", loader);
+        Resource second = imageCache.content("abc", loader);
+        Resource third = imageCache.content("abc", loader);
+
+        // ASSERT - a primeira resposta é o próprio recurso do disco; a terceira nem chama o loader
+        assertThat(first).isSameAs(disk);
+        assertThat(second).isNotSameAs(disk);
+        assertThat(third.getContentAsByteArray()).containsExactly(1, 2, 3);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Não deve guardar conteúdos maiores que 1/16 do orçamento")
+    void shouldNotCacheContentAboveEntryLimit() throws Exception {
+        // ARRANGE
+        Resource large = new ByteArrayResource(new byte[1024 * 1024 + 1]);
+
+        // ACT & ASSERT
+        for (int i = 0; i < 3; i++) {
+            assertThat(imageCache.content("large", () -> large)).isSameAs(large);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve voltar ao disco depois que o conteúdo é removido do cache")
+    void shouldReloadFromDiskAfterEviction() throws Exception {
+        // ARRANGE
+        Resource disk = new ByteArrayResource(new byte[]{1});
+        imageCache.content("abc", () -> disk);
+        imageCache.content("abc", () -> disk);
+
+        // ACT
+        imageCache.evictContent("abc");
+
+        // ASSERT
+        assertThat(imageCache.content("abc", () -> disk)).isSameAs(disk);
+    }
+}
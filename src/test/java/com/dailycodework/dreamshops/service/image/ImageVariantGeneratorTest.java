@@ -0,0 +1,80 @@
+package com.dailycodework.dreamshops.service.image;
+
+import com.dailycodework.dreamshops.repository.ImageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.dao.QueryTimeoutException;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImageVariantGenerator - Testes Unitários")
+class ImageVariantGeneratorTest {
+
+    @Mock
+    private ImageStorage imageStorage;
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @Mock
+    private ImageContentRegistry imageContentRegistry;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ImageVariantGenerator generator;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // ARRANGE - original 800x400: thumbnail e medium são gerados, o large reaproveita o original
+        generator = new ImageVariantGenerator(imageStorage, imageRepository, new ImageCache(16, new SimpleMeterRegistry()),
+                imageContentRegistry, eventPublisher);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(800, 400, BufferedImage.TYPE_INT_ARGB), "png", png);
+        when(imageStorage.load("original")).thenReturn(new ByteArrayResource(png.toByteArray()));
+        AtomicInteger stored = new AtomicInteger();
+        when(imageStorage.store(any(InputStream.class)))
+                .thenAnswer(invocation -> new ImageStorage.StoredContent("variant-" + stored.incrementAndGet(), 10L));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        generator.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve liberar as referências das variantes quando a imagem não pode ser atualizada")
+    void shouldReleaseVariantsWhenUpdateFails() {
+        // ARRANGE
+        when(imageRepository.updateVariants(eq(1L), eq("original"), anyString(), anyString(), eq("original")))
+                .thenThrow(new QueryTimeoutException("statement timeout"));
+
+        // ACT
+        generator.onImageUploaded(new ImageUploadedEvent(1L, 5L, "original", "image/png"));
+
+        // ASSERT - cada referência adquirida é liberada; nada de catálogo a atualizar
+        verify(imageContentRegistry, timeout(5000)).release("variant-1");
+        verify(imageContentRegistry, timeout(5000)).release("variant-2");
+        verify(imageContentRegistry, times(2)).acquire(anyString(), anyLong());
+        verifyNoInteractions(eventPublisher);
+    }
+}
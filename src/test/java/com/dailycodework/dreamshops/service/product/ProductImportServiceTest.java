@@ -0,0 +1,231 @@
+package com.dailycodework.dreamshops.service.product;
+
+import com.dailycodework.dreamshops.dto.ProductImportResultDto;
+import com.dailycodework.dreamshops.enums.ImportFormat;
+import com.dailycodework.dreamshops.model.Category;
+import com.dailycodework.dreamshops.repository.CategoryRepository;
+import com.dailycodework.dreamshops.repository.ProductRepository;
+import com.dailycodework.dreamshops.repository.ProductRepository.NameAndBrand;
+import com.dailycodework.dreamshops.service.catalog.CatalogReloadEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductImportService - Testes Unitários")
+class ProductImportServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    private ProductImportService importService;
+
+    // Nome dos produtos de cada chamada ao batchUpdate, na ordem das chamadas
+    private final List<List<String>> insertedNames = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        importService = new ProductImportService(productRepository, categoryRepository, jdbcTemplate,
+                new ObjectMapper(), transactionManager, eventPublisher);
+        Category phones = new Category("Phones");
+        phones.setId(1L);
+        lenient().when(categoryRepository.findAll()).thenReturn(List.of(phones));
+        lenient().when(productRepository.findByNameIn(anyCollection())).thenReturn(List.of());
+        lenient().when(categoryRepository.save(any(Category.class))).thenAnswer(invocation -> {
+            Category category = invocation.getArgument(0);
+            category.setId(2L);
+            return category;
+        });
+    }
+
+    @Test
+    @DisplayName("Deve inserir as linhas válidas em lote e pedir uma única recarga do catálogo")
+    void shouldInsertValidRowsInBatchAndReloadOnce() throws Exception {
+        // ARRANGE
+        stubBatchUpdate(null);
+        String csv = """
+                name,brand,price,inventory,category,description
+                iPhone 15,Apple,999.90,10,Phones,"Câmera ""pro"", 128GB"
+                Galaxy S24,Samsung,-1,5,Phones,
+                Smart TV,LG,1999.00,3,TVs,
+                """;
+
+        // ACT
+        ProductImportResultDto result = importService.importProducts(input(csv), ImportFormat.CSV);
+
+        // ASSERT - a linha com preço negativo é rejeitada antes do banco
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(ProductImportResultDto.RowError::getRow).containsExactly(3L);
+        assertThat(insertedNames).containsExactly(List.of("iPhone 15", "Smart TV"));
+        verify(preparedStatement).setString(5, "Câmera \"pro\", 128GB");
+        verify(preparedStatement).setLong(6, 1L);
+        verify(preparedStatement).setLong(6, 2L);
+        verify(eventPublisher, times(1)).publishEvent(any(CatalogReloadEvent.class));
+    }
+
+    @Test
+    @DisplayName("Deve criar a categoria nova dentro da transação do lote")
+    void shouldCreateNewCategoryInsideBatchTransaction() {
+        // ARRANGE
+        stubBatchUpdate(null);
+        String json = """
+                {"name":"Smart TV","brand":"LG","price":1999.00,"inventory":3,"category":{"name":"TVs"}}
+                {"name":"OLED TV","brand":"LG","price":4999.00,"inventory":1,"category":{"name":"TVs"}}
+                """;
+
+        // ACT
+        importService.importProducts(input(json), ImportFormat.NDJSON);
+
+        // ASSERT - criada uma única vez, entre o início e o commit da transação
+        InOrder inOrder = inOrder(transactionManager, categoryRepository, jdbcTemplate);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(categoryRepository).save(any(Category.class));
+        inOrder.verify(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+        inOrder.verify(transactionManager).commit(any());
+        verify(categoryRepository, times(1)).save(any(Category.class));
+    }
+
+    @Test
+    @DisplayName("Deve refazer linha a linha quando o lote falha e reportar só a linha com problema")
+    void shouldRetryRowByRowWhenBatchFails() {
+        // ARRANGE - o banco rejeita o produto "Quebrado"
+        stubBatchUpdate("Quebrado");
+        String csv = """
+                name,brand,price,inventory,category
+                iPhone 15,Apple,999.90,10,Phones
+                Quebrado,Acme,1.00,1,TVs
+                Galaxy S24,Samsung,899.90,5,Phones
+                """;
+
+        // ACT
+        ProductImportResultDto result = importService.importProducts(input(csv), ImportFormat.CSV);
+
+        // ASSERT
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRow()).isEqualTo(3L);
+            assertThat(error.getMessage()).contains("value too long");
+        });
+        assertThat(insertedNames).containsExactly(
+            List.of("iPhone 15", "Quebrado", "Galaxy S24"),
+            List.of("iPhone 15"),
+            List.of("Quebrado"),
+            List.of("Galaxy S24")
+        );
+        // A categoria criada no lote desfeito não fica no cache; é criada de novo na tentativa da linha
+        verify(categoryRepository, times(2)).save(any(Category.class));
+        verify(transactionManager, times(2)).rollback(any());
+        verify(eventPublisher).publishEvent(any(CatalogReloadEvent.class));
+    }
+
+    @Test
+    @DisplayName("Não deve recarregar o catálogo quando nenhuma linha é inserida")
+    void shouldNotReloadCatalogWhenNothingIsInserted() {
+        // ARRANGE - um produto já existe e o outro não tem nome
+        NameAndBrand existing = mock(NameAndBrand.class);
+        when(existing.getName()).thenReturn("iPhone 15");
+        when(existing.getBrand()).thenReturn("Apple");
+        when(productRepository.findByNameIn(anyCollection())).thenReturn(List.of(existing));
+        String csv = """
+                name,brand,price,inventory,category
+                iPhone 15,Apple,999.90,10,Phones
+                ,Apple,1.00,1,Phones
+                """;
+
+        // ACT
+        ProductImportResultDto result = importService.importProducts(input(csv), ImportFormat.CSV);
+
+        // ASSERT
+        assertThat(result.getImported()).isZero();
+        assertThat(result.getSkipped()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(1);
+        verifyNoInteractions(jdbcTemplate, transactionManager, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Deve propagar a falha de leitura da entrada mantendo a causa")
+    void shouldKeepCauseWhenInputCannotBeRead() {
+        // ARRANGE
+        IOException failure = new IOException("Connection reset");
+        InputStream broken = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw failure;
+            }
+        };
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> importService.importProducts(broken, ImportFormat.CSV))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasCause(failure);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubBatchUpdate(String rejectedName) {
+        doAnswer(invocation -> {
+            Collection<Object> rows = invocation.getArgument(1);
+            ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+            List<String> names = new ArrayList<>();
+            doAnswer(set -> names.add(set.getArgument(1))).when(preparedStatement).setString(eq(1), anyString());
+            for (Object row : rows) {
+                setter.setValues(preparedStatement, row);
+            }
+            insertedNames.add(names);
+            if (names.contains(rejectedName)) {
+                throw new DataIntegrityViolationException("value too long for column");
+            }
+            return new int[][]{new int[rows.size()]};
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    private static InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
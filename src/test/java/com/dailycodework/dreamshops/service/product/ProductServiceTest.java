@@ -1,33 +1,57 @@
 package com.dailycodework.dreamshops.service.product;
 
+import com.dailycodework.dreamshops.dto.ImageDto;
 import com.dailycodework.dreamshops.dto.ProductDto;
+import com.dailycodework.dreamshops.dto.ProductBulkUpdateResultDto;
+import com.dailycodework.dreamshops.dto.ProductPageDto;
 import com.dailycodework.dreamshops.exceptions.AlreadyExistsException;
 import com.dailycodework.dreamshops.exceptions.ProductNotFoundException;
+import com.dailycodework.dreamshops.mapper.ProductMapper;
 import com.dailycodework.dreamshops.model.Category;
 import com.dailycodework.dreamshops.model.Product;
 import com.dailycodework.dreamshops.repository.CategoryRepository;
 import com.dailycodework.dreamshops.repository.ImageRepository;
+import com.dailycodework.dreamshops.repository.ImageRepository.ImageSummary;
 import com.dailycodework.dreamshops.repository.ProductRepository;
 import com.dailycodework.dreamshops.request.AddProductRequest;
+import com.dailycodework.dreamshops.request.ProductBulkUpdateRequest;
 import com.dailycodework.dreamshops.request.ProductUpdateRequest;
+import com.dailycodework.dreamshops.service.catalog.CatalogReadModel;
+import com.dailycodework.dreamshops.service.catalog.CatalogSnapshot;
+import com.dailycodework.dreamshops.service.catalog.ProductChangedEvent;
+import com.dailycodework.dreamshops.service.catalog.ProductSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,8 +67,26 @@ class ProductServiceTest {
     @Mock
     private ImageRepository imageRepository;
 
+    @Spy
+    private ProductMapper productMapper = new ProductMapper();
+
+    @Mock
+    private CatalogReadModel catalogReadModel;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @Mock
-    private ModelMapper modelMapper;
+    private ProductSearchIndex productSearchIndex;
+
+    // Banco H2 em memória só para a tabela product do bulk update: o COALESCE e as contagens por lote vêm do banco
+    private static final EmbeddedDatabase BULK_UPDATE_DB = new EmbeddedDatabaseBuilder()
+        .setType(EmbeddedDatabaseType.H2)
+        .generateUniqueName(true)
+        .build();
+
+    @Spy
+    private JdbcTemplate jdbcTemplate = new JdbcTemplate(BULK_UPDATE_DB);
 
     @InjectMocks
     private ProductService productService;
@@ -128,6 +170,7 @@ class ProductServiceTest {
         verify(productRepository, times(1)).existsByNameAndBrand(anyString(), anyString());
         verify(categoryRepository, times(1)).findByName(anyString());
         verify(productRepository, times(1)).save(any(Product.class));
+        verify(eventPublisher, times(1)).publishEvent(any(ProductChangedEvent.class));
     }
 
     @Test
@@ -166,20 +209,61 @@ class ProductServiceTest {
     }
 
     @Test
-    @DisplayName("Deve retornar todos os produtos")
-    void shouldReturnAllProducts() {
+    @DisplayName("Deve retornar a primeira página pelo banco quando o catálogo em memória não está carregado")
+    void shouldReturnFirstPageOfProducts() {
         // ARRANGE
-        List<Product> expectedProducts = Arrays.asList(testProduct);
-        when(productRepository.findAll()).thenReturn(expectedProducts);
+        when(catalogReadModel.snapshot()).thenReturn(Optional.empty());
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+            .thenReturn(List.of(testProduct));
+        when(imageRepository.findSummariesByProductIdIn(List.of(testProduct.getId()))).thenReturn(List.of());
+
+        // ACT
+        ProductPageDto page = productService.getAllProducts(null, 50);
+
+        // ASSERT
+        assertThat(page.getProducts()).hasSize(1);
+        assertThat(page.getProducts().get(0).getId()).isEqualTo(testProduct.getId());
+        assertThat(page.getNextCursor()).isNull();
+        verify(productRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Deve continuar após o cursor e devolver o id do último produto como próximo cursor")
+    void shouldContinueFromCursorAndReturnNextCursor() {
+        // ARRANGE - uma linha a mais que a página indica que existe próxima página
+        List<Product> rows = List.of(productWithId(6L), productWithId(7L), productWithId(8L));
+        when(catalogReadModel.snapshot()).thenReturn(Optional.empty());
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(eq(5L), any(Pageable.class))).thenReturn(rows);
+        when(imageRepository.findSummariesByProductIdIn(anyCollection())).thenReturn(List.of());
 
         // ACT
-        List<Product> actualProducts = productService.getAllProducts();
+        ProductPageDto page = productService.getAllProducts(5L, 2);
 
         // ASSERT
-        assertThat(actualProducts).isNotNull();
-        assertThat(actualProducts).hasSize(1);
-        assertThat(actualProducts.get(0)).isEqualTo(testProduct);
-        verify(productRepository, times(1)).findAll();
+        assertThat(page.getProducts()).extracting(ProductDto::getId).containsExactly(6L, 7L);
+        assertThat(page.getNextCursor()).isEqualTo(7L);
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(productRepository).findByIdGreaterThanOrderByIdAsc(eq(5L), pageable.capture());
+        assertThat(pageable.getValue().getPageSize()).isEqualTo(3);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"1000, 100", "0, 1", "-5, 1", "100, 100"})
+    @DisplayName("Deve limitar o tamanho da página entre 1 e 100")
+    void shouldClampPageSize(int requested, int expected) {
+        // ARRANGE
+        when(catalogReadModel.snapshot()).thenReturn(Optional.empty());
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(List.of());
+
+        // ACT
+        ProductPageDto page = productService.getAllProducts(null, requested);
+
+        // ASSERT - busca sempre uma linha a mais que a página
+        assertThat(page.getProducts()).isEmpty();
+        assertThat(page.getNextCursor()).isNull();
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(productRepository).findByIdGreaterThanOrderByIdAsc(eq(0L), pageable.capture());
+        assertThat(pageable.getValue().getPageSize()).isEqualTo(expected + 1);
     }
 
     @Test
@@ -266,13 +350,7 @@ class ProductServiceTest {
     @DisplayName("Deve converter produto para DTO corretamente")
     void shouldConvertProductToDtoCorrectly() {
         // ARRANGE
-        ProductDto expectedDto = new ProductDto();
-        expectedDto.setId(testProduct.getId());
-        expectedDto.setName(testProduct.getName());
-        expectedDto.setPrice(testProduct.getPrice());
-        
-        when(modelMapper.map(testProduct, ProductDto.class)).thenReturn(expectedDto);
-        when(imageRepository.findByProductId(testProduct.getId())).thenReturn(List.of());
+        when(imageRepository.findSummariesByProductId(testProduct.getId())).thenReturn(List.of());
 
         // ACT
         ProductDto result = productService.convertToDto(testProduct);
@@ -281,8 +359,11 @@ class ProductServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(testProduct.getId());
         assertThat(result.getName()).isEqualTo(testProduct.getName());
-        verify(modelMapper, times(1)).map(testProduct, ProductDto.class);
-        verify(imageRepository, times(1)).findByProductId(testProduct.getId());
+        assertThat(result.getBrand()).isEqualTo(testProduct.getBrand());
+        assertThat(result.getPrice()).isEqualTo(testProduct.getPrice());
+        assertThat(result.getCategory()).isEqualTo(testCategory);
+        assertThat(result.getImages()).isEmpty();
+        verify(imageRepository, times(1)).findSummariesByProductId(testProduct.getId());
     }
 
     @Test
@@ -290,12 +371,7 @@ class ProductServiceTest {
     void shouldConvertProductListToDtos() {
         // ARRANGE
         List<Product> products = Arrays.asList(testProduct);
-        ProductDto expectedDto = new ProductDto();
-        expectedDto.setId(testProduct.getId());
-        expectedDto.setName(testProduct.getName());
-        
-        when(modelMapper.map(testProduct, ProductDto.class)).thenReturn(expectedDto);
-        when(imageRepository.findByProductId(testProduct.getId())).thenReturn(List.of());
+        when(imageRepository.findSummariesByProductIdIn(List.of(testProduct.getId()))).thenReturn(List.of());
 
         // ACT
         List<ProductDto> result = productService.getConvertedProducts(products);
@@ -304,7 +380,170 @@ class ProductServiceTest {
         assertThat(result).isNotNull();
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getId()).isEqualTo(testProduct.getId());
-        verify(modelMapper, times(1)).map(testProduct, ProductDto.class);
-        verify(imageRepository, times(1)).findByProductId(testProduct.getId());
+        assertThat(result.get(0).getImages()).isEmpty();
+        verify(imageRepository, times(1)).findSummariesByProductIdIn(List.of(testProduct.getId()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 500})
+    @DisplayName("Deve carregar as imagens da lista com uma única consulta, qualquer que seja o tamanho")
+    void shouldLoadImagesWithSingleQueryRegardlessOfListSize(int size) {
+        // ARRANGE
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= size; id++) {
+            products.add(productWithId(id));
+        }
+        ImageSummary image = new ImageSummary(100L, 1L, "front.jpg", "image/jpeg", "/api/v1/images/image/download/100",
+                null, null, null);
+        when(imageRepository.findSummariesByProductIdIn(anyCollection())).thenReturn(List.of(image));
+
+        // ACT
+        List<ProductDto> result = productService.getConvertedProducts(products);
+
+        // ASSERT
+        assertThat(result).hasSize(size);
+        assertThat(result.get(0).getImages()).extracting(ImageDto::getId).containsExactly(image.id());
+        assertThat(result.subList(1, size)).allSatisfy(dto -> assertThat(dto.getImages()).isEmpty());
+        verify(imageRepository, times(1)).findSummariesByProductIdIn(anyCollection());
+        verifyNoMoreInteractions(imageRepository);
+    }
+
+    @Test
+    @DisplayName("Deve buscar no banco quando o catálogo em memória não está carregado")
+    void shouldSearchInDatabaseWhenCatalogIsNotLoaded() {
+        // ARRANGE
+        when(catalogReadModel.snapshot()).thenReturn(Optional.empty());
+        when(productRepository.searchByText(eq("%100!% iphone%"), any(Pageable.class))).thenReturn(List.of(testProduct));
+        when(imageRepository.findSummariesByProductIdIn(List.of(testProduct.getId()))).thenReturn(List.of());
+
+        // ACT
+        List<ProductDto> result = productService.searchProducts("  100% iPhone ", 20);
+
+        // ASSERT
+        assertThat(result).extracting(ProductDto::getId).containsExactly(testProduct.getId());
+        verifyNoInteractions(productSearchIndex);
+    }
+
+    @Test
+    @DisplayName("Deve usar o índice em memória quando o catálogo está carregado")
+    void shouldSearchInMemoryWhenCatalogIsLoaded() {
+        // ARRANGE
+        ProductDto indexed = new ProductDto();
+        indexed.setId(testProduct.getId());
+        CatalogSnapshot snapshot = mock(CatalogSnapshot.class);
+        when(catalogReadModel.snapshot()).thenReturn(Optional.of(snapshot));
+        when(productSearchIndex.search("iphone", 20)).thenReturn(List.of(testProduct.getId()));
+        when(snapshot.findById(testProduct.getId())).thenReturn(Optional.of(indexed));
+
+        // ACT
+        List<ProductDto> result = productService.searchProducts("iphone", 20);
+
+        // ASSERT
+        assertThat(result).containsExactly(indexed);
+        verify(productRepository, never()).searchByText(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Deve atualizar só os campos informados no bulk update")
+    void shouldUpdateOnlyProvidedFieldsInBulkUpdate() {
+        // ARRANGE
+        createProducts(1L, 2L);
+
+        // ACT
+        ProductBulkUpdateResultDto result = productService.bulkUpdateProducts(List.of(
+            bulkUpdate(1L, new BigDecimal("15.00"), null),
+            bulkUpdate(2L, null, 0)
+        ));
+
+        // ASSERT - os campos nulos mantêm o valor atual
+        assertThat(result.getUpdated()).isEqualTo(2);
+        assertThat(priceAndInventory(1L)).containsExactly(new BigDecimal("15.00"), 5);
+        assertThat(priceAndInventory(2L)).containsExactly(new BigDecimal("10.00"), 0);
+        ArgumentCaptor<ProductChangedEvent> eventCaptor = ArgumentCaptor.forClass(ProductChangedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getProductIds()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Deve contar itens sem alteração e reportar ids inexistentes no bulk update")
+    void shouldReportSkippedAndNotFoundInBulkUpdate() {
+        // ARRANGE
+        createProducts(1L, 2L);
+
+        // ACT
+        ProductBulkUpdateResultDto result = productService.bulkUpdateProducts(List.of(
+            bulkUpdate(1L, null, null),
+            bulkUpdate(99L, BigDecimal.ONE, null),
+            bulkUpdate(2L, null, 3)
+        ));
+
+        // ASSERT
+        assertThat(result.getRequested()).isEqualTo(3);
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getSkipped()).isEqualTo(1);
+        assertThat(result.getNotFound()).containsExactly(99L);
+        assertThat(priceAndInventory(1L)).containsExactly(new BigDecimal("10.00"), 5);
+        ArgumentCaptor<ProductChangedEvent> eventCaptor = ArgumentCaptor.forClass(ProductChangedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getProductIds()).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Deve enviar o bulk update em lotes de 1000 e mapear as contagens de cada lote")
+    void shouldChunkBulkUpdateAndMapCountsAcrossBatches() {
+        // ARRANGE - 2500 ids, dos quais dois (no segundo e no terceiro lote) não existem
+        createProducts(LongStream.rangeClosed(1, 2500).filter(id -> id != 1500 && id != 2400).toArray());
+        List<ProductBulkUpdateRequest> updates = LongStream.rangeClosed(1, 2500)
+            .mapToObj(id -> bulkUpdate(id, null, (int) id))
+            .toList();
+
+        // ACT
+        ProductBulkUpdateResultDto result = productService.bulkUpdateProducts(updates);
+
+        // ASSERT
+        verify(jdbcTemplate).batchUpdate(anyString(), anyCollection(), eq(1000), any());
+        assertThat(result.getUpdated()).isEqualTo(2498);
+        assertThat(result.getNotFound()).containsExactly(1500L, 2400L);
+        assertThat(priceAndInventory(2500L)).containsExactly(new BigDecimal("10.00"), 2500);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar o bulk update inteiro quando um item é inválido")
+    void shouldRejectWholeBulkUpdateWhenAnItemIsInvalid() {
+        // ARRANGE
+        List<ProductBulkUpdateRequest> updates = List.of(bulkUpdate(1L, BigDecimal.ONE, null), bulkUpdate(2L, null, -1));
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> productService.bulkUpdateProducts(updates))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Inventory cannot be negative (product 2)");
+        verifyNoInteractions(jdbcTemplate, eventPublisher);
+    }
+
+    private static void createProducts(long... ids) {
+        JdbcTemplate setup = new JdbcTemplate(BULK_UPDATE_DB);
+        setup.execute("DROP TABLE IF EXISTS product");
+        setup.execute("CREATE TABLE product (id BIGINT PRIMARY KEY, price NUMERIC(19, 2), inventory INT)");
+        setup.batchUpdate("INSERT INTO product (id, price, inventory) VALUES (?, 10.00, 5)",
+            Arrays.stream(ids).mapToObj(id -> new Object[]{id}).toList());
+    }
+
+    private static List<Object> priceAndInventory(Long id) {
+        return new JdbcTemplate(BULK_UPDATE_DB).queryForObject("SELECT price, inventory FROM product WHERE id = ?",
+            (rs, rowNum) -> List.of(rs.getBigDecimal("price"), rs.getInt("inventory")), id);
+    }
+
+    private static ProductBulkUpdateRequest bulkUpdate(Long id, BigDecimal price, Integer inventory) {
+        ProductBulkUpdateRequest request = new ProductBulkUpdateRequest();
+        request.setId(id);
+        request.setPrice(price);
+        request.setInventory(inventory);
+        return request;
+    }
+
+    private Product productWithId(Long id) {
+        Product product = new Product("Product " + id, "Brand", BigDecimal.TEN, 1, null, testCategory);
+        product.setId(id);
+        return product;
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
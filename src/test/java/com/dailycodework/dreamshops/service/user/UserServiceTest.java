@@ -2,6 +2,10 @@ package com.dailycodework.dreamshops.service.user;
 
 import com.dailycodework.dreamshops.dto.UserDto;
 import com.dailycodework.dreamshops.exceptions.AlreadyExistsException;
+import com.dailycodework.dreamshops.mapper.CartMapper;
+import com.dailycodework.dreamshops.mapper.OrderMapper;
+import com.dailycodework.dreamshops.mapper.ProductMapper;
+import com.dailycodework.dreamshops.mapper.UserMapper;
 import com.dailycodework.dreamshops.model.User;
 import com.dailycodework.dreamshops.repository.UserRepository;
 import com.dailycodework.dreamshops.request.CreateUserRequest;
@@ -12,8 +16,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -43,8 +47,8 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    @Mock
-    private ModelMapper modelMapper;
+    @Spy
+    private UserMapper userMapper = new UserMapper(new OrderMapper(), new CartMapper(new ProductMapper()));
 
     @Mock
     private PasswordEncoder passwordEncoder;
@@ -254,8 +258,7 @@ class UserServiceTest {
     @Test
     @DisplayName("Deve converter User para UserDto corretamente")
     void shouldConvertUserToDtoCorrectly() {
-        // Given
-        when(modelMapper.map(testUser, UserDto.class)).thenReturn(userDto);
+        // Given - testUser sem pedidos nem carrinho
 
         // When
         UserDto result = userService.convertUserToDto(testUser);
@@ -266,8 +269,9 @@ class UserServiceTest {
         assertEquals(userDto.getEmail(), result.getEmail(), "Email deve corresponder");
         assertEquals(userDto.getFirstName(), result.getFirstName(), "Nome deve corresponder");
         assertEquals(userDto.getLastName(), result.getLastName(), "Sobrenome deve corresponder");
+        assertNull(result.getCart(), "Carrinho deve ser null quando o usuário não tem carrinho");
 
-        verify(modelMapper).map(testUser, UserDto.class);
+        verify(userMapper).toDto(testUser);
     }
 
     @Test